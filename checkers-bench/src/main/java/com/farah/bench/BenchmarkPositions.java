@@ -0,0 +1,51 @@
+package com.farah.bench;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+
+/**
+ * BenchmarkPositions is the fixed set of positions the benchmarks and perft run on, so results can be compared from one
+ * build to the next. They cover the opening, a crowded middle game and a sparse ending with kings, each with the human
+ * (who moves first) to move. Positions are given as the three masks of a BitBoard, followed by their perft counts, which
+ * count every capture chain as one move and were checked against a capture generator working on copied boards.
+ */
+public enum BenchmarkPositions {
+    START(0x00000FFF, 0xFFF00000, 0x00000000,
+            7L, 49L, 302L, 1_469L, 7_361L, 36_768L, 179_740L, 845_931L, 3_963_680L, 18_391_564L, 85_242_068L,
+            388_625_373L),
+    OPENING(0x000421AF, 0xFF080000, 0x00000000,
+            9L, 77L, 477L, 3_587L, 21_812L, 153_323L, 887_795L, 5_720_316L, 31_906_925L, 191_961_137L, 1_042_167_783L,
+            5_870_807_722L),
+    MIDDLE_GAME(0x00800EF2, 0xCF048100, 0x00000000,
+            8L, 35L, 164L, 632L, 2_622L, 11_813L, 49_684L, 213_379L, 895_294L, 3_821_867L, 16_284_477L, 69_600_440L),
+    ENDING(0x20001409, 0x11280080, 0x20000000,
+            6L, 27L, 130L, 580L, 2_323L, 10_452L, 41_596L, 190_915L, 762_727L, 3_617_241L, 14_769_660L, 72_189_107L);
+
+    private final int computerPieces;
+    private final int humanPieces;
+    private final int kings;
+
+    // known perft counts for depth 1, 2, 3 and so on
+    private final long[] perftCounts;
+
+    BenchmarkPositions(int computerPieces, int humanPieces, int kings, long... perftCounts) {
+        this.computerPieces = computerPieces;
+        this.humanPieces = humanPieces;
+        this.kings = kings;
+        this.perftCounts = perftCounts;
+    }
+
+    // a new board every time, benchmarks and perft modify the board they are given
+    public BitBoard getBoard() {
+        return new BitBoard(computerPieces, humanPieces, kings);
+    }
+
+    public PlayerType getPlayerToMove() {
+        return PlayerType.HUMAN;
+    }
+
+    // the known leaf count at the given depth, or -1 when it is not known
+    public long getPerftCount(int depth) {
+        return depth >= 1 && depth <= perftCounts.length ? perftCounts[depth - 1] : -1;
+    }
+}
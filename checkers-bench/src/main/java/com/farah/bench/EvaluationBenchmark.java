@@ -0,0 +1,59 @@
+package com.farah.bench;
+
+import com.farah.model.BitBoard;
+import com.farah.model.BoardUtils;
+import com.farah.model.Checker;
+import com.farah.model.Evaluation;
+import com.farah.model.PlayerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EvaluationBenchmark measures the heuristic function: the 64 square scan of BoardUtils, a full recalculation from the
+ * Evaluation tables and the incrementally maintained score read by the search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    @Param({"START", "OPENING", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    private Checker[][] checkersBoard;
+    private BitBoard board;
+
+    @Setup
+    public void setUp() {
+        board = position.getBoard();
+        checkersBoard = board.toCheckers();
+    }
+
+    @Benchmark
+    public int getBoardStateScore() {
+        return BoardUtils.getBoardStateScore(checkersBoard, PlayerType.COMPUTER);
+    }
+
+    @Benchmark
+    public int recalculateScore() {
+        return Evaluation.getScore(PlayerType.COMPUTER, board.getComputerPieces(), board.getHumanPieces(), board.getKings());
+    }
+
+    @Benchmark
+    public int incrementalScore() {
+        return board.getBoardStateScore(PlayerType.COMPUTER);
+    }
+}
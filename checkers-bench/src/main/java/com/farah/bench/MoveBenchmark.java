@@ -0,0 +1,86 @@
+package com.farah.bench;
+
+import com.farah.model.BitBoard;
+import com.farah.model.BoardUtils;
+import com.farah.model.Checker;
+import com.farah.model.Move;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import org.apache.commons.lang3.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MoveBenchmark measures applying every legal move of a position. BoardUtils.move changes the board it is given, so
+ * each move is applied to a fresh copy and copyBoard measures the copy on its own. The bitboard applies and takes back
+ * each move on the same board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    @Param({"START", "OPENING", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    private Checker[][] checkersBoard;
+    private List<Move> possibleMoves;
+    private BitBoard board;
+    private PlayerType playerType;
+    private final MoveList moves = new MoveList();
+    private final MoveUndo undo = new MoveUndo();
+
+    @Setup
+    public void setUp() {
+        board = position.getBoard();
+        checkersBoard = board.toCheckers();
+        playerType = position.getPlayerToMove();
+        possibleMoves = board.getAllPossibleMoves(playerType);
+        board.generateMoves(playerType, moves);
+    }
+
+    @Benchmark
+    public void copyBoard(Blackhole blackhole) {
+        for (int i = 0; i < possibleMoves.size(); i++) {
+            blackhole.consume(SerializationUtils.clone(checkersBoard));
+        }
+    }
+
+    @Benchmark
+    public void move(Blackhole blackhole) {
+        for (Move move : possibleMoves) {
+            var copy = SerializationUtils.clone(checkersBoard);
+            BoardUtils.move(copy, move, playerType);
+            blackhole.consume(copy);
+        }
+    }
+
+    @Benchmark
+    public long makeUnmakeMove() {
+        long keys = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i), playerType, undo);
+            keys ^= board.getKey();
+            board.unmakeMove(moves.get(i), playerType, undo);
+        }
+
+        return keys;
+    }
+}
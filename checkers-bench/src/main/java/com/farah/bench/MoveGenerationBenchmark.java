@@ -0,0 +1,60 @@
+package com.farah.bench;
+
+import com.farah.model.BitBoard;
+import com.farah.model.BoardUtils;
+import com.farah.model.Checker;
+import com.farah.model.Move;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MoveGenerationBenchmark measures the successor function, both the Checker[][] entry point used by the controller and
+ * the packed move generator used by the search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"START", "OPENING", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    private Checker[][] checkersBoard;
+    private BitBoard board;
+    private PlayerType playerType;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = position.getBoard();
+        checkersBoard = board.toCheckers();
+        playerType = position.getPlayerToMove();
+    }
+
+    @Benchmark
+    public List<Move> getAllPossibleMoves() {
+        return BoardUtils.getAllPossibleMoves(checkersBoard, playerType);
+    }
+
+    @Benchmark
+    public MoveList generateMoves() {
+        board.generateMoves(playerType, moves);
+        return moves;
+    }
+}
@@ -0,0 +1,108 @@
+package com.farah.bench;
+
+import com.farah.engine.NeuralEvaluator;
+import com.farah.engine.NeuralNetwork;
+import com.farah.model.BitBoard;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NeuralEvaluationBenchmark measures evaluations per second as the search sees them: each operation makes one of the
+ * legal moves of the position, scores the result and takes the move back, cycling through the moves. The heuristic
+ * is read from the scores maintained by makeMove, the neural evaluator updates its accumulator with the pieces that
+ * changed, and the refresh benchmark rebuilds the accumulator from an empty board every time. The networks are the two
+ * unit heuristic network and random networks of typical hidden sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeuralEvaluationBenchmark {
+    @Param({"START", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    @Param({"2", "32", "256"})
+    private int hiddenSize;
+
+    private BitBoard board;
+    private PlayerType playerType;
+    private NeuralEvaluator evaluator;
+    private final MoveList moves = new MoveList();
+    private final MoveUndo undo = new MoveUndo();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        board = position.getBoard();
+        playerType = position.getPlayerToMove();
+        board.generateMoves(playerType, moves);
+        evaluator = new NeuralEvaluator(hiddenSize == 2 ? NeuralNetwork.fromHeuristic() : getRandomNetwork(hiddenSize));
+    }
+
+    // small weights so the hidden units spread over the clipped range
+    private static NeuralNetwork getRandomNetwork(int hiddenSize) {
+        var random = new SplittableRandom(hiddenSize);
+        var inputWeights = new short[NeuralNetwork.INPUTS * hiddenSize];
+        var hiddenBiases = new short[hiddenSize];
+        var outputWeights = new short[hiddenSize];
+
+        for (int i = 0; i < inputWeights.length; i++) inputWeights[i] = (short) random.nextInt(-32, 33);
+        for (int i = 0; i < hiddenSize; i++) hiddenBiases[i] = (short) random.nextInt(0, 128);
+        for (int i = 0; i < hiddenSize; i++) outputWeights[i] = (short) random.nextInt(-64, 65);
+
+        return new NeuralNetwork(hiddenSize, 64 * hiddenSize, inputWeights, hiddenBiases, outputWeights, 0);
+    }
+
+    private int nextMove() {
+        if (++index == moves.size()) index = 0;
+        return moves.get(index);
+    }
+
+    @Benchmark
+    public int heuristic() {
+        var move = nextMove();
+        board.makeMove(move, playerType, undo);
+        var score = board.getEvaluation(PlayerType.COMPUTER);
+        board.unmakeMove(move, playerType, undo);
+
+        return score;
+    }
+
+    @Benchmark
+    public int neural() {
+        var move = nextMove();
+        board.makeMove(move, playerType, undo);
+        var score = evaluator.evaluate(board);
+        board.unmakeMove(move, playerType, undo);
+
+        return score;
+    }
+
+    @Benchmark
+    public int neuralRefresh() {
+        var move = nextMove();
+        board.makeMove(move, playerType, undo);
+        evaluator.reset();
+        var score = evaluator.evaluate(board);
+        board.unmakeMove(move, playerType, undo);
+
+        return score;
+    }
+}
@@ -0,0 +1,63 @@
+package com.farah.bench;
+
+import com.farah.engine.ParallelSearch;
+import com.farah.engine.SearchLimits;
+import com.farah.engine.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelSearchBenchmark measures a fixed depth ParallelSearch with a varying number of threads, to be compared with
+ * the serial search of SearchBenchmark. The transposition table is cleared before every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+    @Param({"START", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    @Param({"8"})
+    private int depth;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ParallelSearch parallelSearch;
+
+    @Setup
+    public void setUp() {
+        parallelSearch = new ParallelSearch(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        parallelSearch.getTranspositionTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelSearch.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult parallelSearch() {
+        return parallelSearch.search(position.getBoard(), position.getPlayerToMove(), SearchLimits.depth(depth));
+    }
+}
@@ -0,0 +1,136 @@
+package com.farah.bench;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Perft counts the leaf nodes of the game tree to a fixed depth. The counts only depend on the rules, so comparing them
+ * with known values is a quick way to catch move generator and make/unmake bugs, and the time taken is a measure of the
+ * raw speed of the generator. The root moves can be split over several threads and subtree counts can be cached in a
+ * hash table shared by the threads, since the same position is reached through many move orders.
+ * Usage: Perft [depth] [threads] [hash MB] [position], the defaults are depth 10, one thread, no hash and START.
+ */
+public class Perft {
+    private final int threads;
+    private final PerftTable table;
+
+    public Perft(int threads, int hashMb) {
+        this.threads = Math.max(1, threads);
+        this.table = hashMb > 0 ? new PerftTable(hashMb) : null;
+    }
+
+    public static void main(String[] args) {
+        var depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        var threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        var hashMb = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        var position = args.length > 3 ? BenchmarkPositions.valueOf(args[3]) : BenchmarkPositions.START;
+
+        var perft = new Perft(threads, hashMb);
+        var failed = false;
+
+        for (int d = 1; d <= depth; d++) {
+            var start = System.nanoTime();
+            var count = perft.count(position.getBoard(), position.getPlayerToMove(), d);
+            var millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            var expected = position.getPerftCount(d);
+            var check = expected < 0 ? "unknown" : expected == count ? "ok" : "FAILED, expected " + expected;
+            failed |= expected >= 0 && expected != count;
+
+            System.out.printf("perft %2d %,18d %8d ms %,12d nodes/s %s%n", d, count, millis, count * 1000 / millis, check);
+        }
+
+        if (failed) System.exit(1);
+    }
+
+    // number of leaf nodes below the position at the given depth, the position is not changed
+    public long count(BitBoard position, PlayerType playerType, int depth) {
+        if (depth <= 0) return 1;
+
+        if (depth >= PerftTable.MAX_DEPTH) {
+            throw new IllegalArgumentException("Perft depth must be below " + PerftTable.MAX_DEPTH);
+        }
+
+        if (depth == 1 || threads == 1) {
+            return new Walker().count(new BitBoard(position), playerType, depth);
+        }
+
+        var rootMoves = new MoveList();
+        position.generateMoves(playerType, rootMoves);
+
+        // each root move is counted as its own task, so the threads share the work without any coordination
+        var pool = new ForkJoinPool(threads);
+
+        try {
+            List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+
+            for (int i = 0; i < rootMoves.size(); i++) {
+                var move = rootMoves.get(i);
+
+                tasks.add(pool.submit(() -> {
+                    var board = new BitBoard(position);
+                    board.makeMove(move, playerType, new MoveUndo());
+                    return new Walker().count(board, BitBoard.getOppPlayer(playerType), depth - 1);
+                }));
+            }
+
+            long nodes = 0;
+            for (ForkJoinTask<Long> task : tasks) nodes += task.join();
+
+            return nodes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // the make/unmake tree walk of one thread, with its own move lists and undo records
+    private class Walker {
+        private final MoveList[] moveLists = new MoveList[PerftTable.MAX_DEPTH];
+        private final MoveUndo[] undoRecords = new MoveUndo[PerftTable.MAX_DEPTH];
+
+        private Walker() {
+            for (int i = 0; i < PerftTable.MAX_DEPTH; i++) {
+                moveLists[i] = new MoveList();
+                undoRecords[i] = new MoveUndo();
+            }
+        }
+
+        private long count(BitBoard board, PlayerType playerType, int depth) {
+            var key = board.getKey(playerType);
+
+            if (table != null && depth > 1) {
+                var cached = table.probe(key, depth);
+                if (cached != PerftTable.MISS) return cached;
+            }
+
+            var moves = moveLists[depth];
+            board.generateMoves(playerType, moves);
+
+            // the leaves are counted without making the moves
+            if (depth == 1) return moves.size();
+
+            var oppPlayer = BitBoard.getOppPlayer(playerType);
+            var undo = undoRecords[depth];
+            long nodes = 0;
+
+            for (int i = 0; i < moves.size(); i++) {
+                var move = moves.get(i);
+
+                board.makeMove(move, playerType, undo);
+                nodes += count(board, oppPlayer, depth - 1);
+                board.unmakeMove(move, playerType, undo);
+            }
+
+            if (table != null) table.store(key, depth, nodes);
+
+            return nodes;
+        }
+    }
+}
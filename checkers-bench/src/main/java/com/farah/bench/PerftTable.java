@@ -0,0 +1,49 @@
+package com.farah.bench;
+
+/**
+ * PerftTable caches the leaf count of subtrees by position key and depth. Each slot holds the count and depth packed
+ * into one long, with the key stored XORed with that data, so the table can be shared by the perft threads without
+ * locking: a slot torn by two threads writing at once no longer matches its key and is read as a miss. Slots are
+ * always replaced.
+ */
+class PerftTable {
+    static final int MAX_DEPTH = 64;
+    static final long MISS = -1L;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    PerftTable(int sizeMb) {
+        var entries = Integer.highestOneBit((int) Math.min(1 << 30, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY));
+        entries = Math.max(entries, 1);
+
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    long probe(long key, int depth) {
+        var index = getIndex(key);
+        var entry = data[index];
+
+        if (entry != 0 && (keys[index] ^ entry) == key && (entry & (MAX_DEPTH - 1)) == depth) return entry >>> 6;
+
+        return MISS;
+    }
+
+    // entry layout: depth (bits 0-5), leaf count (6-63)
+    void store(long key, int depth, long count) {
+        var index = getIndex(key);
+        var entry = (count << 6) | depth;
+
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    private int getIndex(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,65 @@
+package com.farah.bench;
+
+import com.farah.engine.Search;
+import com.farah.engine.SearchLimits;
+import com.farah.engine.SearchResult;
+import com.farah.engine.TranspositionTable;
+import com.farah.model.BitBoard;
+import com.farah.model.Checker;
+import com.farah.model.PlayerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchBenchmark measures a fixed depth search, both a single Search.minimax call on a position converted from a
+ * Checker[][] board and the iterative deepening Search. The transposition table is cleared before every call so each search starts from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"START", "MIDDLE_GAME", "ENDING"})
+    private BenchmarkPositions position;
+
+    @Param({"8"})
+    private int depth;
+
+    private Checker[][] checkersBoard;
+    private Search search;
+
+    @Setup
+    public void setUp() {
+        checkersBoard = position.getBoard().toCheckers();
+        search = new Search(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        search.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public int minimax() {
+        return search.minimax(BitBoard.fromCheckers(checkersBoard), depth, -Search.INFINITY, Search.INFINITY, false);
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return search.search(position.getBoard(), position.getPlayerToMove(), SearchLimits.depth(depth));
+    }
+}
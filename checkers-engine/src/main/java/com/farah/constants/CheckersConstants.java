@@ -2,9 +2,10 @@ package com.farah.constants;
 
 /**
  * CheckersConstants class which contains the settings for the board; namely the number of Rows and Cols which are fixed
- * to 8.
+ * to 8, and the number of times a position must be reached for the game to be drawn by repetition.
  */
 public class CheckersConstants {
     public static final int NUM_ROWS = 8;
     public static final int NUM_COLS = 8;
+    public static final int REPETITION_DRAW_COUNT = 3;
 }
@@ -0,0 +1,174 @@
+package com.farah.engine;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EngineMetrics keeps the statistics of the searches run by an EngineService: totals over all searches and the details
+ * of the last one. It is registered as an MXBean in the platform MBean server, so a running game or protocol engine can
+ * be watched from any JMX console without changing how it is started.
+ */
+public class EngineMetrics implements EngineMetricsMXBean {
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    private long searches;
+    private long totalNodes;
+    private long totalMillis;
+    private long totalProbes;
+    private long totalHits;
+    private long totalCutoffs;
+    private long totalFirstMoveCutoffs;
+    private SearchResult last = new SearchResult(null, 0, 0, 0, 0);
+
+    // add the result of a finished search
+    public synchronized void record(SearchResult result) {
+        var stats = result.getStats();
+
+        searches++;
+        totalNodes += result.getNodes();
+        totalMillis += result.getElapsedMillis();
+        totalProbes += stats.getTranspositionProbes();
+        totalHits += stats.getTranspositionHits();
+        totalCutoffs += stats.getBetaCutoffs();
+        totalFirstMoveCutoffs += stats.getFirstMoveCutoffs();
+        last = result;
+    }
+
+    // register in the platform MBean server, returns the name or null if the server refused it
+    ObjectName register() {
+        try {
+            var name = new ObjectName("com.farah.engine:type=EngineMetrics,name=engine-" + instances.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            return name;
+        } catch (JMException | SecurityException e) {
+            System.err.println("Engine metrics could not be registered with JMX: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static void unregister(ObjectName name) {
+        if (name == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // already gone, nothing left to clean up
+        }
+    }
+
+    @Override
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    @Override
+    public synchronized long getTotalNodes() {
+        return totalNodes;
+    }
+
+    @Override
+    public synchronized long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @Override
+    public synchronized long getNodesPerSecond() {
+        return totalMillis == 0 ? 0 : totalNodes * 1000 / totalMillis;
+    }
+
+    @Override
+    public synchronized double getTranspositionHitRate() {
+        return totalProbes == 0 ? 0 : (double) totalHits / totalProbes;
+    }
+
+    @Override
+    public synchronized double getFirstMoveCutoffRate() {
+        return totalCutoffs == 0 ? 0 : (double) totalFirstMoveCutoffs / totalCutoffs;
+    }
+
+    @Override
+    public synchronized int getLastDepth() {
+        return last.getDepth();
+    }
+
+    @Override
+    public synchronized int getLastScore() {
+        return last.getScore();
+    }
+
+    @Override
+    public synchronized long getLastNodes() {
+        return last.getNodes();
+    }
+
+    @Override
+    public synchronized long getLastMillis() {
+        return last.getElapsedMillis();
+    }
+
+    @Override
+    public synchronized long getLastNodesPerSecond() {
+        return last.getNodesPerSecond();
+    }
+
+    @Override
+    public synchronized long getLastLeafEvaluations() {
+        return last.getStats().getLeafEvaluations();
+    }
+
+    @Override
+    public synchronized long getLastBetaCutoffs() {
+        return last.getStats().getBetaCutoffs();
+    }
+
+    @Override
+    public synchronized double getLastFirstMoveCutoffRate() {
+        return last.getStats().getFirstMoveCutoffRate();
+    }
+
+    @Override
+    public synchronized double getLastEffectiveBranchingFactor() {
+        return last.getStats().getEffectiveBranchingFactor();
+    }
+
+    @Override
+    public synchronized long getLastTranspositionProbes() {
+        return last.getStats().getTranspositionProbes();
+    }
+
+    @Override
+    public synchronized double getLastTranspositionHitRate() {
+        return last.getStats().getTranspositionHitRate();
+    }
+
+    @Override
+    public synchronized long getLastTablebaseHits() {
+        return last.getStats().getTablebaseHits();
+    }
+
+    @Override
+    public synchronized long[] getLastIterationMillis() {
+        var stats = last.getStats();
+        var millis = new long[stats.getDepth()];
+
+        for (int depth = 1; depth <= stats.getDepth(); depth++) {
+            millis[depth - 1] = stats.getIterationMillis(depth);
+        }
+
+        return millis;
+    }
+
+    @Override
+    public synchronized void reset() {
+        searches = 0;
+        totalNodes = 0;
+        totalMillis = 0;
+        totalProbes = 0;
+        totalHits = 0;
+        totalCutoffs = 0;
+        totalFirstMoveCutoffs = 0;
+        last = new SearchResult(null, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.farah.engine;
+
+/**
+ * EngineMetricsMXBean is the management interface of EngineMetrics, the attributes appear in JMX consoles such as
+ * JConsole or VisualVM under com.farah.engine.
+ */
+public interface EngineMetricsMXBean {
+    long getSearches();
+
+    long getTotalNodes();
+
+    long getTotalMillis();
+
+    long getNodesPerSecond();
+
+    double getTranspositionHitRate();
+
+    double getFirstMoveCutoffRate();
+
+    int getLastDepth();
+
+    int getLastScore();
+
+    long getLastNodes();
+
+    long getLastMillis();
+
+    long getLastNodesPerSecond();
+
+    long getLastLeafEvaluations();
+
+    long getLastBetaCutoffs();
+
+    double getLastFirstMoveCutoffRate();
+
+    double getLastEffectiveBranchingFactor();
+
+    long getLastTranspositionProbes();
+
+    double getLastTranspositionHitRate();
+
+    long getLastTablebaseHits();
+
+    // time of every iteration of the last search, index 0 is depth 1
+    long[] getLastIterationMillis();
+
+    void reset();
+}
@@ -0,0 +1,171 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import javax.management.ObjectName;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * EngineService runs searches on a background thread so the caller (the JavaFX application thread) is never blocked.
+ * A search is started with startSearch, which returns a future for the final result and reports the result of every
+ * completed depth to an optional listener while it runs. A running search can be stopped early with stopNow, in which
+ * case the future completes with the best move found so far, or abandoned with cancel, in which case the future is
+ * cancelled. Only one search runs at a time, starting a new one cancels the previous one.
+ * While the opponent thinks, startPonder searches the position after the move the opponent is expected to play. If
+ * startSearch is then called for that same position and game history the pondering search simply carries on as the
+ * real search, with its limits counting from that moment, otherwise it is dropped and a new search started. The
+ * transposition table is shared, so whatever the dropped search stored can still be used.
+ * The statistics of every finished search are kept in an EngineMetrics, which is published through JMX.
+ */
+public class EngineService {
+    private final ParallelSearch search;
+    private final ExecutorService executor;
+    private final EngineMetrics metrics = new EngineMetrics();
+    private final ObjectName metricsName;
+
+    private CompletableFuture<SearchResult> currentSearch = CompletableFuture.completedFuture(null);
+    private SearchControl currentControl = new SearchControl(SearchLimits.INFINITE);
+
+    // the position being pondered, null when the current search is not a pondering one
+    private BitBoard ponderPosition;
+    private PlayerType ponderPlayer;
+    private SearchLimits ponderLimits;
+    private PositionHistory ponderHistory;
+
+    public EngineService(int threads) {
+        this(new ParallelSearch(threads));
+    }
+
+    public EngineService(ParallelSearch search) {
+        this.search = search;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "checkers-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.metricsName = metrics.register();
+    }
+
+    public ParallelSearch getSearch() {
+        return search;
+    }
+
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    public CompletableFuture<SearchResult> startSearch(BitBoard position, PlayerType playerType, SearchLimits limits) {
+        return startSearch(position, playerType, limits, result -> { });
+    }
+
+    public CompletableFuture<SearchResult> startSearch(BitBoard position, PlayerType playerType, SearchLimits limits, Consumer<SearchResult> listener) {
+        return startSearch(position, playerType, new PositionHistory(), limits, listener);
+    }
+
+    // the position and game history are copied so the caller is free to change its own while the search runs. When the
+    // position and history are the ones being pondered, the pondering search is returned instead and its listener stays
+    // in place
+    public synchronized CompletableFuture<SearchResult> startSearch(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, Consumer<SearchResult> listener) {
+        if (isPondering(position, playerType, gameHistory, limits)) {
+            ponderHit();
+            return currentSearch;
+        }
+
+        return start(position, playerType, gameHistory, limits, listener, false);
+    }
+
+    public CompletableFuture<SearchResult> startPonder(BitBoard position, PlayerType playerType, SearchLimits limits, Consumer<SearchResult> listener) {
+        return startPonder(position, playerType, new PositionHistory(), limits, listener);
+    }
+
+    // search the position while waiting for the opponent, the limits only start to count once the search is confirmed by
+    // startSearch with the same position or by ponderHit. The game history ends with the expected move, as the game
+    // history of that startSearch will
+    public synchronized CompletableFuture<SearchResult> startPonder(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, Consumer<SearchResult> listener) {
+        var future = start(position, playerType, gameHistory, limits, listener, true);
+
+        ponderPosition = new BitBoard(position);
+        ponderPlayer = playerType;
+        ponderLimits = limits;
+        ponderHistory = new PositionHistory(gameHistory);
+
+        return future;
+    }
+
+    // the opponent played the expected move, the pondering search carries on as the real search
+    public synchronized void ponderHit() {
+        currentControl.ponderHit();
+        clearPonder();
+    }
+
+    // a pondering search can only be taken over with the same limits, the depth limit is fixed once it has started, and
+    // the same history, as a different one can change which positions are repetitions
+    private boolean isPondering(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits) {
+        return ponderPosition != null && !currentSearch.isCancelled() && playerType.equals(ponderPlayer)
+                && limits.equals(ponderLimits) && position.getKey(playerType) == ponderPosition.getKey(playerType)
+                && gameHistory.equals(ponderHistory);
+    }
+
+    private void clearPonder() {
+        ponderPosition = null;
+        ponderPlayer = null;
+        ponderLimits = null;
+        ponderHistory = null;
+    }
+
+    private CompletableFuture<SearchResult> start(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, Consumer<SearchResult> listener, boolean ponder) {
+        cancel();
+
+        var searchPosition = new BitBoard(position);
+        var searchHistory = new PositionHistory(gameHistory);
+        var searchControl = new SearchControl(limits, ponder);
+        var future = new CompletableFuture<SearchResult>();
+
+        executor.execute(() -> {
+            // a search cancelled while it was still queued is skipped altogether
+            if (future.isDone()) return;
+
+            try {
+                var result = search.search(searchPosition, playerType, searchHistory, limits, searchControl, listener);
+                metrics.record(result);
+                future.complete(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+
+        currentSearch = future;
+        currentControl = searchControl;
+
+        return future;
+    }
+
+    // stop the running search, its future completes with the best move of the last completed depth
+    public synchronized void stopNow() {
+        currentControl.stop();
+    }
+
+    // abandon the running search, its future is cancelled and no move is reported
+    public synchronized void cancel() {
+        currentSearch.cancel(false);
+        currentControl.stop();
+        clearPonder();
+    }
+
+    public synchronized boolean isSearching() {
+        return !currentSearch.isDone();
+    }
+
+    // stop any running search straight away and release the engine threads, used when the application closes
+    public synchronized void shutdown() {
+        cancel();
+        executor.shutdownNow();
+        search.shutdown();
+        EngineMetrics.unregister(metricsName);
+    }
+}
@@ -0,0 +1,10 @@
+package com.farah.engine;
+
+/**
+ * EvaluationType selects the function the search uses to score positions at its leaves: the hand written heuristic of
+ * BitBoard.getBoardStateScore, or the quantized neural network of NeuralEvaluator.
+ */
+public enum EvaluationType {
+    HEURISTIC,
+    NEURAL
+}
@@ -0,0 +1,120 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+
+/**
+ * MoveOrdering scores the moves of a node so the search can try the most promising ones first, which is what lets
+ * alpha-beta prune. The move stored in the transposition table comes first, then captures (longer chains first, then
+ * chains taking more kings) and crowning moves, then the two killer moves of the ply (quiet moves which caused a cutoff in a
+ * sibling node), and the remaining quiet moves are ordered by the history table, which counts how often a from/to pair
+ * has caused a cutoff anywhere in the tree. Each Search has its own MoveOrdering.
+ */
+class MoveOrdering {
+    private static final int TABLE_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 500_000;
+    private static final int JUMP_BONUS = 2_000;
+    private static final int KING_CAPTURE_BONUS = 1_000;
+    private static final int CROWN_SCORE = 400_000;
+    private static final int FIRST_KILLER_SCORE = 300_000;
+    private static final int SECOND_KILLER_SCORE = 290_000;
+
+    // history scores are kept below the killer scores
+    private static final int HISTORY_LIMIT = 200_000;
+
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[][][] history = new int[2][BitBoard.SQUARES][BitBoard.SQUARES];
+
+    // killers only make sense within one search, the history is aged so recent cutoffs count the most
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                for (int to = 0; to < BitBoard.SQUARES; to++) {
+                    fromHistory[to] >>= 2;
+                }
+            }
+        }
+    }
+
+    // the killer moves of a ply, index 0 or 1, NO_MOVE when there is none
+    int getKiller(int ply, int index) {
+        return killers[ply][index];
+    }
+
+    // fill in the ordering score of every move, tableMove is the move from the transposition table (or NO_MOVE)
+    void scoreMoves(MoveList moves, int tableMove, BitBoard board, PlayerType playerType, int ply) {
+        var side = playerType.ordinal();
+
+        for (int i = 0; i < moves.size(); i++) {
+            var move = moves.get(i);
+            int score;
+
+            if (move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (MoveEncoding.isJumpMove(move)) {
+                var kingCaptures = Integer.bitCount(board.getKings() & MoveEncoding.getCaptured(move));
+                score = CAPTURE_SCORE + MoveEncoding.getJumpCount(move) * JUMP_BONUS + kingCaptures * KING_CAPTURE_BONUS
+                        + (MoveEncoding.isCrownMove(move) ? 1 : 0);
+            } else if (isPromotion(move, board)) {
+                score = CROWN_SCORE;
+            } else if (move == killers[ply][0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = history[side][MoveEncoding.getFrom(move)][MoveEncoding.getTo(move)];
+            }
+
+            moves.setScore(i, score);
+        }
+    }
+
+    // move the best scoring of the remaining moves into position index, a selection sort done one step at a time so
+    // moves after a cutoff are never sorted
+    static void pickNext(MoveList moves, int index) {
+        var best = index;
+
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (moves.getScore(i) > moves.getScore(best)) best = i;
+        }
+
+        if (best != index) moves.swap(best, index);
+    }
+
+    // called when a move causes a beta cutoff, quiet moves become killers and gain history
+    void recordCutoff(int move, BitBoard board, PlayerType playerType, int ply, int depth) {
+        if (MoveEncoding.isJumpMove(move) || isPromotion(move, board)) return;
+
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        var side = playerType.ordinal();
+        var from = MoveEncoding.getFrom(move);
+        var to = MoveEncoding.getTo(move);
+
+        history[side][from][to] += depth * depth;
+
+        // halve the whole table for this side once an entry gets too big, keeping the relative order
+        if (history[side][from][to] >= HISTORY_LIMIT) {
+            for (int[] fromHistory : history[side]) {
+                for (int square = 0; square < BitBoard.SQUARES; square++) {
+                    fromHistory[square] >>= 1;
+                }
+            }
+        }
+    }
+
+    // a man reaching the crown row, kings moving onto it are ordinary quiet moves
+    private static boolean isPromotion(int move, BitBoard board) {
+        return MoveEncoding.isCrownMove(move) && (board.getKings() & (1 << MoveEncoding.getFrom(move))) == 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+
+/**
+ * MovePicker hands the moves of a node to the search one at a time and only generates them when they are asked for.
+ * Captures are generated first, and as captures are mandatory no quiet move is generated at all when there is one.
+ * Otherwise the table move and the two killers are tried before the quiet moves are generated, so a cutoff by one of
+ * them, which is the common case, saves generating and scoring the rest. The table move and killers may come from
+ * another position, so they are checked with BitBoard.isQuietMove first, and they are skipped when the quiet moves
+ * come round. The search keeps one MovePicker per ply, so picking moves does not allocate.
+ */
+class MovePicker {
+    private static final int CAPTURES = 0;
+    private static final int TABLE_MOVE = 1;
+    private static final int FIRST_KILLER = 2;
+    private static final int SECOND_KILLER = 3;
+    private static final int GENERATE_QUIET_MOVES = 4;
+    private static final int QUIET_MOVES = 5;
+    private static final int DONE = 6;
+
+    private final MoveOrdering moveOrdering;
+    private final MoveList moves = new MoveList();
+
+    private BitBoard board;
+    private PlayerType playerType;
+    private int ply;
+    private int tableMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int stage;
+    private int index;
+
+    MovePicker(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    // start picking the moves of the position, the captures are generated straight away
+    void init(BitBoard board, PlayerType playerType, int tableMove, int ply) {
+        this.board = board;
+        this.playerType = playerType;
+        this.ply = ply;
+        this.index = 0;
+
+        board.generateCaptures(playerType, moves);
+
+        if (!moves.isEmpty()) {
+            moveOrdering.scoreMoves(moves, tableMove, board, playerType, ply);
+            stage = CAPTURES;
+            return;
+        }
+
+        this.tableMove = board.isQuietMove(tableMove, playerType) ? tableMove : MoveEncoding.NO_MOVE;
+        this.firstKiller = MoveEncoding.NO_MOVE;
+        this.secondKiller = MoveEncoding.NO_MOVE;
+        stage = TABLE_MOVE;
+    }
+
+    // whether the moves are captures, known as soon as the picker is initialised
+    boolean isCapturePosition() {
+        return stage == CAPTURES;
+    }
+
+    // the next move to search, NO_MOVE when there are none left. A stage with nothing to hand out moves on to the next
+    // stage and goes round the loop again
+    int next() {
+        while (true) {
+            switch (stage) {
+                case CAPTURES:
+                    if (index == moves.size()) return MoveEncoding.NO_MOVE;
+
+                    MoveOrdering.pickNext(moves, index);
+                    return moves.get(index++);
+                case TABLE_MOVE:
+                    stage = FIRST_KILLER;
+                    if (tableMove != MoveEncoding.NO_MOVE) return tableMove;
+                    break;
+                case FIRST_KILLER:
+                    stage = SECOND_KILLER;
+                    firstKiller = getKiller(0);
+                    if (firstKiller != MoveEncoding.NO_MOVE) return firstKiller;
+                    break;
+                case SECOND_KILLER:
+                    stage = GENERATE_QUIET_MOVES;
+                    secondKiller = getKiller(1);
+                    if (secondKiller != MoveEncoding.NO_MOVE) return secondKiller;
+                    break;
+                case GENERATE_QUIET_MOVES:
+                    board.generateQuietMoves(playerType, moves);
+                    moveOrdering.scoreMoves(moves, MoveEncoding.NO_MOVE, board, playerType, ply);
+                    stage = QUIET_MOVES;
+                    break;
+                case QUIET_MOVES:
+                    while (index < moves.size()) {
+                        MoveOrdering.pickNext(moves, index);
+                        var move = moves.get(index++);
+
+                        if (move != tableMove && move != firstKiller && move != secondKiller) return move;
+                    }
+
+                    stage = DONE;
+                    break;
+                default:
+                    return MoveEncoding.NO_MOVE;
+            }
+        }
+    }
+
+    // a killer of this ply if it is legal here and not already tried as the table move
+    private int getKiller(int slot) {
+        var killer = moveOrdering.getKiller(ply, slot);
+        return killer != tableMove && board.isQuietMove(killer, playerType) ? killer : MoveEncoding.NO_MOVE;
+    }
+}
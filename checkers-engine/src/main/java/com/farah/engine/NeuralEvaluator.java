@@ -0,0 +1,64 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Evaluation;
+import com.farah.model.Zobrist;
+
+/**
+ * NeuralEvaluator scores positions with a NeuralNetwork. The sums of the hidden units (the accumulator) depend only on
+ * which pieces are on the board, so they are not recalculated for every position: the evaluator remembers the pieces of
+ * the position it last evaluated and only adds the weights of the pieces which have appeared since and takes off those
+ * of the pieces which have gone. Consecutive evaluations in a search are of nearby positions, so this is usually a
+ * handful of pieces however the search got from one to the other, and it needs no help from makeMove or unmakeMove.
+ * An evaluator is not thread safe, every Search has its own.
+ */
+public class NeuralEvaluator {
+    // scores are kept well away from the win and loss scores of the search, as those of the heuristic are
+    static final int MAX_SCORE = Evaluation.MAX_SCORE;
+
+    private final NeuralNetwork network;
+    private final short[] accumulator;
+
+    // the pieces of each kind (see Zobrist) included in the accumulator
+    private final int[] pieces = new int[4];
+
+    public NeuralEvaluator(NeuralNetwork network) {
+        this.network = network;
+        this.accumulator = new short[network.getHiddenSize()];
+        network.clear(accumulator);
+    }
+
+    public NeuralNetwork getNetwork() {
+        return network;
+    }
+
+    // the score of the position from the computer's point of view
+    public int evaluate(BitBoard board) {
+        var kings = board.getKings();
+
+        update(Zobrist.COMPUTER_MAN, board.getComputerPieces() & ~kings);
+        update(Zobrist.COMPUTER_KING, board.getComputerPieces() & kings);
+        update(Zobrist.HUMAN_MAN, board.getHumanPieces() & ~kings);
+        update(Zobrist.HUMAN_KING, board.getHumanPieces() & kings);
+
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, network.getOutput(accumulator)));
+    }
+
+    // forget the pieces of the last position, the next evaluation starts from an empty board
+    public void reset() {
+        network.clear(accumulator);
+        for (int kind = 0; kind < 4; kind++) pieces[kind] = 0;
+    }
+
+    private void update(int kind, int current) {
+        for (int added = current & ~pieces[kind]; added != 0; added &= added - 1) {
+            network.addInput(accumulator, NeuralNetwork.getInput(kind, Integer.numberOfTrailingZeros(added)));
+        }
+
+        for (int removed = pieces[kind] & ~current; removed != 0; removed &= removed - 1) {
+            network.removeInput(accumulator, NeuralNetwork.getInput(kind, Integer.numberOfTrailingZeros(removed)));
+        }
+
+        pieces[kind] = current;
+    }
+}
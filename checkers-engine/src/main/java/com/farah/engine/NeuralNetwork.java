@@ -0,0 +1,211 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Evaluation;
+import com.farah.model.Zobrist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * NeuralNetwork holds the quantized weights of the network used by NeuralEvaluator. The network has one input per piece
+ * kind (see Zobrist) and square, 128 in all, a hidden layer of any size with 16 bit weights and biases, and a single
+ * output. A hidden unit is the sum of its bias and the weights of the pieces on the board, clipped to 0..CLIP, and the
+ * output is the sum of the clipped units times their 16 bit output weights plus the output bias, divided by the output
+ * scale, giving a score from the computer's point of view in the units of the heuristic.
+ * The input weights are stored input by input, so the weights a piece adds to every hidden unit are contiguous.
+ * The hidden units are summed in 16 bits, so a network is only accepted when no board can take a unit out of that range:
+ * its bias and the 24 largest input weights (there are never more pieces) must fit in a short. The sums may wrap while
+ * an update adds the new pieces before taking off the old ones, but they are exact again once it is done.
+ * File layout (big endian): magic, version, hidden size and output scale, then the input weights, the hidden biases and
+ * the output weights as 16 bit values, then the output bias as a 32 bit value.
+ * The engine uses the file named by the checkers.network system property. Without one it uses a two unit network which
+ * computes exactly the heuristic, so the neural evaluation can be used, and checked against the heuristic, before any
+ * trained weights exist.
+ */
+public class NeuralNetwork {
+    public static final String FILE_PROPERTY = "checkers.network";
+    public static final int INPUTS = 4 * BitBoard.SQUARES;
+
+    // hidden units are clipped to this value before the output layer
+    public static final int CLIP = 255;
+
+    static final int MAGIC = 0x434B4E4E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    // most pieces that can be on the board, twelve a side
+    private static final int MAX_PIECES = 24;
+
+    private static volatile NeuralNetwork defaultNetwork;
+
+    private final int hiddenSize;
+    private final int outputScale;
+    private final short[] inputWeights;
+    private final short[] hiddenBiases;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    public NeuralNetwork(int hiddenSize, int outputScale, short[] inputWeights, short[] hiddenBiases, short[] outputWeights, int outputBias) {
+        if (hiddenSize <= 0 || outputScale <= 0) throw new IllegalArgumentException("Hidden size and output scale must be positive");
+
+        if (inputWeights.length != INPUTS * hiddenSize || hiddenBiases.length != hiddenSize || outputWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("Weights do not match a hidden size of " + hiddenSize);
+        }
+
+        checkRange(hiddenSize, inputWeights, hiddenBiases, outputWeights, outputBias);
+
+        this.hiddenSize = hiddenSize;
+        this.outputScale = outputScale;
+        this.inputWeights = inputWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    // the network named by the system property, loaded once and shared by every search
+    public static NeuralNetwork getDefault() {
+        if (defaultNetwork == null) {
+            synchronized (NeuralNetwork.class) {
+                if (defaultNetwork == null) defaultNetwork = loadDefault();
+            }
+        }
+
+        return defaultNetwork;
+    }
+
+    private static NeuralNetwork loadDefault() {
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null) return fromHeuristic();
+
+        try {
+            return load(Paths.get(file));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Network " + file + " could not be loaded, using the heuristic network: " + e.getMessage());
+            return fromHeuristic();
+        }
+    }
+
+    // the network with the same output as the heuristic evaluation, the computer's score less the human's: a piece adds
+    // its Evaluation score to its own side and takes the piece count weight off the other side, unit 0 holds the sum of
+    // those when it is positive and unit 1 its negation when it is negative
+    public static NeuralNetwork fromHeuristic() {
+        var inputWeights = new short[INPUTS * 2];
+        var pieceCount = Evaluation.getWeight(Evaluation.PIECE_COUNT);
+
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            setHeuristicWeights(inputWeights, getInput(Zobrist.COMPUTER_MAN, square), Evaluation.getPieceScore(Zobrist.COMPUTER_MAN, square) + pieceCount);
+            setHeuristicWeights(inputWeights, getInput(Zobrist.COMPUTER_KING, square), Evaluation.getPieceScore(Zobrist.COMPUTER_KING, square) + pieceCount);
+            setHeuristicWeights(inputWeights, getInput(Zobrist.HUMAN_MAN, square), -Evaluation.getPieceScore(Zobrist.HUMAN_MAN, square) - pieceCount);
+            setHeuristicWeights(inputWeights, getInput(Zobrist.HUMAN_KING, square), -Evaluation.getPieceScore(Zobrist.HUMAN_KING, square) - pieceCount);
+        }
+
+        return new NeuralNetwork(2, 1, inputWeights, new short[2], new short[] {1, -1}, 0);
+    }
+
+    private static void setHeuristicWeights(short[] inputWeights, int input, int score) {
+        inputWeights[input * 2] = (short) score;
+        inputWeights[input * 2 + 1] = (short) -score;
+    }
+
+    // refuse weights which could overflow the 16 bit hidden units or the 32 bit output sum
+    private static void checkRange(int hiddenSize, short[] inputWeights, short[] hiddenBiases, short[] outputWeights, int outputBias) {
+        var magnitudes = new int[INPUTS];
+        long outputBound = Math.abs((long) outputBias);
+
+        for (int unit = 0; unit < hiddenSize; unit++) {
+            for (int input = 0; input < INPUTS; input++) magnitudes[input] = Math.abs(inputWeights[input * hiddenSize + unit]);
+            Arrays.sort(magnitudes);
+
+            long bound = Math.abs(hiddenBiases[unit]);
+            for (int i = 1; i <= MAX_PIECES; i++) bound += magnitudes[INPUTS - i];
+
+            if (bound > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Hidden unit " + unit + " can reach " + bound + ", more than a 16 bit sum holds");
+            }
+
+            outputBound += (long) CLIP * Math.abs(outputWeights[unit]);
+        }
+
+        if (outputBound > Integer.MAX_VALUE) throw new IllegalArgumentException("The output can reach " + outputBound + ", more than a 32 bit sum holds");
+    }
+
+    public static NeuralNetwork load(Path file) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) throw new IOException("Not a network file");
+        if (buffer.getInt() != VERSION) throw new IOException("Unsupported network version");
+
+        var hiddenSize = buffer.getInt();
+        var outputScale = buffer.getInt();
+        if (hiddenSize <= 0 || outputScale <= 0) throw new IOException("Network file has a bad header");
+        if (buffer.remaining() != (INPUTS + 2L) * hiddenSize * 2 + 4) throw new IOException("Network file is incomplete");
+
+        var inputWeights = new short[INPUTS * hiddenSize];
+        var hiddenBiases = new short[hiddenSize];
+        var outputWeights = new short[hiddenSize];
+
+        buffer.asShortBuffer().get(inputWeights).get(hiddenBiases).get(outputWeights);
+        buffer.position(buffer.limit() - 4);
+
+        return new NeuralNetwork(hiddenSize, outputScale, inputWeights, hiddenBiases, outputWeights, buffer.getInt());
+    }
+
+    public void write(Path file) throws IOException {
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + (INPUTS + 2) * hiddenSize * 2 + 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(hiddenSize).putInt(outputScale);
+
+        for (short weight : inputWeights) buffer.putShort(weight);
+        for (short bias : hiddenBiases) buffer.putShort(bias);
+        for (short weight : outputWeights) buffer.putShort(weight);
+        buffer.putInt(outputBias);
+
+        Files.write(file, buffer.array());
+    }
+
+    // the input of a piece of the given kind on the given square
+    public static int getInput(int kind, int square) {
+        return kind * BitBoard.SQUARES + square;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    // add the weights of an input to an accumulator of hidden units, a plain loop the JIT can vectorise
+    void addInput(short[] accumulator, int input) {
+        var offset = input * hiddenSize;
+
+        for (int unit = 0; unit < hiddenSize; unit++) {
+            accumulator[unit] += inputWeights[offset + unit];
+        }
+    }
+
+    void removeInput(short[] accumulator, int input) {
+        var offset = input * hiddenSize;
+
+        for (int unit = 0; unit < hiddenSize; unit++) {
+            accumulator[unit] -= inputWeights[offset + unit];
+        }
+    }
+
+    // an accumulator holding only the hidden biases, the value of an empty board
+    void clear(short[] accumulator) {
+        System.arraycopy(hiddenBiases, 0, accumulator, 0, hiddenSize);
+    }
+
+    // the output layer over the clipped hidden units
+    int getOutput(short[] accumulator) {
+        var sum = outputBias;
+
+        for (int unit = 0; unit < hiddenSize; unit++) {
+            sum += Math.max(0, Math.min(CLIP, accumulator[unit])) * outputWeights[unit];
+        }
+
+        return sum / outputScale;
+    }
+}
@@ -0,0 +1,161 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Move;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * OpeningBook holds weighted moves for positions early in the game, so the engine can reply instantly instead of
+ * searching. The book file is built by OpeningBookBuilder and is memory mapped rather than read, so opening it costs
+ * nothing at startup. Each entry is 16 bytes, the position key (including the player to move), the packed move and its
+ * weight, and entries are sorted by key so the moves of a position are found by binary search. When a position has
+ * several moves one is picked at random in proportion to its weight, which keeps the computer from playing the same
+ * game every time.
+ * File layout (big endian): magic, version and number of entries, then the entries.
+ * The engine uses the file named by the checkers.book system property, if there is one.
+ */
+public class OpeningBook {
+    public static final String FILE_PROPERTY = "checkers.book";
+
+    static final int MAGIC = 0x434B4F42;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 16;
+
+    // a book with no positions, used when no file is configured
+    public static final OpeningBook NONE = new OpeningBook(ByteBuffer.allocate(0), 0);
+
+    private static volatile OpeningBook defaultBook;
+
+    private final ByteBuffer entries;
+    private final int size;
+    private final Random random = new Random();
+
+    private OpeningBook(ByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    // the book named by the system property, opened once
+    public static OpeningBook getDefault() {
+        if (defaultBook == null) {
+            synchronized (OpeningBook.class) {
+                if (defaultBook == null) defaultBook = openDefault();
+            }
+        }
+
+        return defaultBook;
+    }
+
+    private static OpeningBook openDefault() {
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null) return NONE;
+
+        try {
+            return open(Paths.get(file));
+        } catch (IOException e) {
+            System.err.println("Opening book " + file + " could not be opened, searching without it: " + e.getMessage());
+            return NONE;
+        }
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) throw new IOException("Not an opening book file");
+            if (header.getInt() != VERSION) throw new IOException("Unsupported opening book version");
+
+            var size = header.getLong();
+            if (size * ENTRY_SIZE != channel.size() - HEADER_SIZE) throw new IOException("Opening book file is incomplete");
+            if (size * ENTRY_SIZE > Integer.MAX_VALUE) throw new IOException("Opening book files are limited to 2 GB");
+
+            // the mapping stays valid after the channel is closed
+            var entries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size * ENTRY_SIZE);
+            return new OpeningBook(entries, (int) size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // a book move for the position, chosen at random by weight, or null when the position is not in the book
+    public Move getMove(BitBoard board, PlayerType playerToMove) {
+        var move = probe(board, playerToMove);
+        return move == MoveEncoding.NO_MOVE ? null : MoveEncoding.toMove(move);
+    }
+
+    // the packed form of getMove, NO_MOVE when the position is not in the book
+    public int probe(BitBoard board, PlayerType playerToMove) {
+        if (size == 0) return MoveEncoding.NO_MOVE;
+
+        var key = board.getKey(playerToMove);
+        var first = findFirst(key);
+        if (first == size || getKey(first) != key) return MoveEncoding.NO_MOVE;
+
+        // only moves which are legal here are used, so a key collision or a damaged book cannot produce a bad move
+        var legalMoves = new MoveList();
+        board.generateMoves(playerToMove, legalMoves);
+
+        long totalWeight = 0;
+        for (int i = first; i < size && getKey(i) == key; i++) {
+            if (legalMoves.indexOf(getBookMove(i)) >= 0) totalWeight += getWeight(i);
+        }
+
+        if (totalWeight == 0) return MoveEncoding.NO_MOVE;
+
+        var pick = (long) (random.nextDouble() * totalWeight);
+
+        for (int i = first; i < size && getKey(i) == key; i++) {
+            if (legalMoves.indexOf(getBookMove(i)) < 0) continue;
+
+            pick -= getWeight(i);
+            if (pick < 0) return getBookMove(i);
+        }
+
+        return MoveEncoding.NO_MOVE;
+    }
+
+    // binary search for the first entry with the key, or the entry it would go before
+    private int findFirst(long key) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+
+            if (getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private long getKey(int entry) {
+        return entries.getLong(entry * ENTRY_SIZE);
+    }
+
+    private int getBookMove(int entry) {
+        return entries.getInt(entry * ENTRY_SIZE + 8);
+    }
+
+    private int getWeight(int entry) {
+        return entries.getInt(entry * ENTRY_SIZE + 12);
+    }
+}
@@ -0,0 +1,225 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * OpeningBookBuilder collects the moves played in the first plies of many games and writes them as an OpeningBook.
+ * Games can come from game files or be played by the engine against itself. Every time a move is played in a position
+ * its weight grows, by more when the player who made it went on to win, so the book prefers moves that are both popular
+ * and successful.
+ * A game file has one game per line: the moves in square notation (for example "22-18 11-15 18x11") from the start
+ * position with the human to move, optionally followed by the result for the human, "1-0", "0-1" or "1/2-1/2". Blank
+ * lines and lines starting with # are skipped.
+ * Usage: OpeningBookBuilder book-file [--plies n] [--self-play games depth] [game-file ...]
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLIES = 12;
+
+    // results from the point of view of the player who moves first
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    // self-play games are adjudicated as draws after this many plies
+    private static final int MAX_GAME_PLIES = 200;
+
+    // self-play games open with a few random moves so they do not all follow the same line
+    private static final int RANDOM_PLIES = 4;
+
+    private final int maxPlies;
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: OpeningBookBuilder book-file [--plies n] [--self-play games depth] [game-file ...]");
+            System.exit(1);
+        }
+
+        var maxPlies = DEFAULT_MAX_PLIES;
+        var selfPlayGames = 0;
+        var selfPlayDepth = 0;
+        List<Path> gameFiles = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--plies")) {
+                maxPlies = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--self-play")) {
+                selfPlayGames = Integer.parseInt(args[++i]);
+                selfPlayDepth = Integer.parseInt(args[++i]);
+            } else {
+                gameFiles.add(Paths.get(args[i]));
+            }
+        }
+
+        var builder = new OpeningBookBuilder(maxPlies);
+
+        for (Path gameFile : gameFiles) {
+            builder.addGameFile(gameFile);
+        }
+
+        if (selfPlayGames > 0) {
+            builder.addSelfPlayGames(selfPlayGames, selfPlayDepth, System.nanoTime());
+        }
+
+        builder.write(Paths.get(args[0]));
+        System.out.println("Wrote " + builder.size() + " book entries to " + args[0]);
+    }
+
+    // number of distinct position and move pairs collected so far
+    public int size() {
+        return weights.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // add a game played from the start position, the moves are packed moves and the result is for the first player
+    public void addGame(int[] moves, int result) {
+        var board = BitBoard.getStartPosition();
+        var playerType = PlayerType.HUMAN;
+        var undo = new MoveUndo();
+
+        for (int ply = 0; ply < Math.min(moves.length, maxPlies); ply++) {
+            var moverResult = playerType.equals(PlayerType.HUMAN) ? result : -result;
+
+            // a win counts three times as much as a loss, which still shows the move is playable
+            weights.computeIfAbsent(board.getKey(playerType), key -> new HashMap<>())
+                    .merge(moves[ply], 2 + moverResult, Integer::sum);
+
+            board.makeMove(moves[ply], playerType, undo);
+            playerType = BitBoard.getOppPlayer(playerType);
+        }
+    }
+
+    public void addGameFile(Path file) throws IOException {
+        var lineNumber = 0;
+
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            try {
+                addGameRecord(line);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // add one game in the game file notation
+    public void addGameRecord(String record) {
+        var board = BitBoard.getStartPosition();
+        var playerType = PlayerType.HUMAN;
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+        List<Integer> moves = new ArrayList<>();
+        var result = DRAW;
+
+        for (String token : record.trim().split("\\s+")) {
+            if (token.equals("1-0")) {
+                result = WIN;
+            } else if (token.equals("0-1")) {
+                result = LOSS;
+            } else if (token.equals("1/2-1/2") || token.equals("*")) {
+                result = DRAW;
+            } else {
+                board.generateMoves(playerType, legalMoves);
+                var move = MoveEncoding.parse(token, legalMoves);
+                if (move == MoveEncoding.NO_MOVE) throw new IllegalArgumentException("Illegal move " + token);
+
+                board.makeMove(move, playerType, undo);
+                playerType = BitBoard.getOppPlayer(playerType);
+                moves.add(move);
+            }
+        }
+
+        addGame(moves.stream().mapToInt(Integer::intValue).toArray(), result);
+    }
+
+    // let the engine play games against itself at the given depth, the games are played in parallel
+    public void addSelfPlayGames(int games, int depth, long seed) {
+        var records = IntStream.range(0, games).parallel()
+                .mapToObj(game -> playSelfPlayGame(depth, new Random(seed + game)))
+                .collect(Collectors.toList());
+
+        for (int[] record : records) {
+            addGame(IntStream.of(record).limit(record.length - 1).toArray(), record[record.length - 1]);
+        }
+    }
+
+    // one self-play game, the moves followed by the result for the first player
+    private static int[] playSelfPlayGame(int depth, Random random) {
+        var search = new Search(new TranspositionTable(8));
+        var board = BitBoard.getStartPosition();
+        var playerType = PlayerType.HUMAN;
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+        List<Integer> moves = new ArrayList<>();
+        var result = DRAW;
+
+        for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+            board.generateMoves(playerType, legalMoves);
+
+            // the player to move has lost
+            if (legalMoves.isEmpty()) {
+                result = playerType.equals(PlayerType.HUMAN) ? LOSS : WIN;
+                break;
+            }
+
+            var move = ply < RANDOM_PLIES
+                    ? legalMoves.get(random.nextInt(legalMoves.size()))
+                    : MoveEncoding.fromMove(search.getBestMove(board, playerType, depth));
+
+            board.makeMove(move, playerType, undo);
+            playerType = BitBoard.getOppPlayer(playerType);
+            moves.add(move);
+        }
+
+        moves.add(result);
+        return moves.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // write the book with its entries sorted by key, and by move within a key so the file is the same on every run
+    public void write(Path file) throws IOException {
+        var sorted = new TreeMap<>(weights);
+        var buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + size() * OpeningBook.ENTRY_SIZE);
+
+        buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(size());
+
+        for (Map.Entry<Long, Map<Integer, Integer>> position : sorted.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : new TreeMap<>(position.getValue()).entrySet()) {
+                buffer.putLong(position.getKey()).putInt(move.getKey()).putInt(move.getValue());
+            }
+        }
+
+        buffer.flip();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ParallelSearch spreads the iterative deepening search over several cores using the Young Brothers Wait approach on a
+ * ForkJoinPool. At every depth the first (eldest) root move is searched on its own to establish a bound, after which
+ * the remaining root moves are searched in parallel. The root alpha is shared between the workers through an atomic
+ * integer, so a better score found by one worker narrows the window of every move started after it, and all workers
+ * share one transposition table so each can reuse the subtrees the others have already searched. Every worker thread
+ * has its own Search (and therefore its own board), the result is the same kind of SearchResult as a serial search.
+ * As in the serial search, every depth starts with an aspiration window around the previous score, and the younger
+ * brothers are searched with a null window and only searched again with the full window when they turn out better.
+ * The statistics of the workers are added together after every iteration. Each worker searches on top of its own copy of
+ * the game history, so repetitions are found in the same way as in the serial search.
+ */
+public class ParallelSearch {
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final ThreadLocal<Search> workers;
+    private final List<Search> allWorkers = Collections.synchronizedList(new ArrayList<>());
+    private final int threads;
+
+    private volatile SearchControl control = new SearchControl(SearchLimits.INFINITE);
+    private EvaluationType evaluation = EvaluationType.HEURISTIC;
+
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable transpositionTable) {
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+        this.transpositionTable = transpositionTable;
+        this.workers = ThreadLocal.withInitial(() -> {
+            var worker = new Search(transpositionTable);
+            allWorkers.add(worker);
+            return worker;
+        });
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    // ask a running search to stop, it returns the best move from the last completed depth
+    public void stop() {
+        control.stop();
+    }
+
+    // stop any running search and release the worker threads
+    public void shutdown() {
+        stop();
+        pool.shutdownNow();
+    }
+
+    public SearchResult search(BitBoard position, PlayerType playerType, SearchLimits limits) {
+        return search(position, playerType, limits, result -> { });
+    }
+
+    // iterative deepening driver, the same as Search.search except that each depth is searched in parallel. The listener
+    // is called with the result of every completed depth, so callers can follow the progress of a long search
+    public SearchResult search(BitBoard position, PlayerType playerType, SearchLimits limits, Consumer<SearchResult> listener) {
+        return search(position, playerType, new PositionHistory(), limits, new SearchControl(limits), listener);
+    }
+
+    // the game history holds the positions played before, as for Search.search, so repetitions of them are draws
+    public SearchResult search(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, Consumer<SearchResult> listener) {
+        return search(position, playerType, gameHistory, limits, new SearchControl(limits), listener);
+    }
+
+    // the control can be created up front by a caller that needs to stop the search before it has even started
+    SearchResult search(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, SearchControl searchControl, Consumer<SearchResult> listener) {
+        control = searchControl;
+
+        // the workers pick the evaluation up from the control, the scores of the old one must not be used by the new one
+        if (limits.getEvaluation() != evaluation) {
+            evaluation = limits.getEvaluation();
+            transpositionTable.clear();
+        }
+
+        transpositionTable.newSearch();
+
+        // the pool is idle between searches, so the worker counters can be cleared from here
+        synchronized (allWorkers) {
+            for (Search worker : allWorkers) worker.getStats().reset();
+        }
+
+        var stats = new SearchStats();
+
+        var rootMoves = new MoveList();
+        position.generateMoves(playerType, rootMoves);
+
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(null, -Search.WIN_SCORE, 0, 0, 0);
+        }
+
+        var maxDepth = limits.hasDepthLimit() ? Math.min(limits.getMaxDepth(), Search.MAX_PLY - 1) : Search.MAX_PLY - 1;
+        var bestMove = rootMoves.get(0);
+        var bestScore = 0;
+        var completedDepth = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            var iterationStart = searchControl.getElapsedMillis();
+            var iterationNodes = stats.nodes;
+            var iteration = searchIteration(position, gameHistory, rootMoves, playerType, depth, bestScore, searchControl);
+
+            // an interrupted iteration is thrown away, its moves were not all searched to the full depth
+            if (searchControl.isStopped()) break;
+
+            bestMove = rootMoves.get(iteration.bestIndex);
+            bestScore = iteration.bestScore;
+            completedDepth = depth;
+
+            collectStats(stats);
+            stats.recordIteration(depth, stats.nodes - iterationNodes, searchControl.getElapsedMillis() - iterationStart);
+
+            transpositionTable.store(position.getKey(playerType), depth, TranspositionTable.EXACT, bestScore, bestMove);
+            listener.accept(new SearchResult(MoveEncoding.toMove(bestMove), bestScore, depth, searchControl.getNodes(),
+                    searchControl.getElapsedMillis(), new SearchStats(stats)));
+
+            // search the best move first on the next iteration
+            rootMoves.moveToFront(iteration.bestIndex);
+
+            // nothing more to learn with a single legal move or a forced win/loss
+            if (rootMoves.size() == 1 || Math.abs(bestScore) >= Search.WIN_SCORE - Search.MAX_PLY) break;
+        }
+
+        // the counters include the work of an interrupted last iteration, as the node count does
+        collectStats(stats);
+
+        return new SearchResult(MoveEncoding.toMove(bestMove), Search.getPonderMove(position, playerType, bestMove, transpositionTable),
+                bestScore, completedDepth, searchControl.getNodes(), searchControl.getElapsedMillis(), stats);
+    }
+
+    // set the counters of the given stats to the sum of the workers, the pool is idle when this is called
+    private void collectStats(SearchStats stats) {
+        stats.clearCounters();
+
+        synchronized (allWorkers) {
+            for (Search worker : allWorkers) stats.add(worker.getStats());
+        }
+    }
+
+    // one depth inside an aspiration window around the previous score, widened on the side the score fell out of until
+    // the score lies inside it
+    private RootIteration searchIteration(BitBoard position, PositionHistory gameHistory, MoveList rootMoves, PlayerType playerType, int depth, int previousScore, SearchControl searchControl) {
+        var delta = Search.ASPIRATION_WINDOW;
+        var alpha = -Search.INFINITY;
+        var beta = Search.INFINITY;
+
+        if (depth >= Search.ASPIRATION_DEPTH) {
+            alpha = Math.max(previousScore - delta, -Search.INFINITY);
+            beta = Math.min(previousScore + delta, Search.INFINITY);
+        }
+
+        while (true) {
+            final int windowAlpha = alpha;
+            final int windowBeta = beta;
+            var iteration = pool.invoke(ForkJoinTask.adapt(() -> searchRoot(position, gameHistory, rootMoves, playerType, depth, windowAlpha, windowBeta, searchControl)));
+
+            if (searchControl.isStopped()) return iteration;
+
+            delta *= 2;
+
+            if (iteration.bestScore <= alpha && alpha > -Search.INFINITY) {
+                alpha = Math.max(iteration.bestScore - delta, -Search.INFINITY);
+            } else if (iteration.bestScore >= beta && beta < Search.INFINITY) {
+                beta = Math.min(iteration.bestScore + delta, Search.INFINITY);
+
+                // the move that failed high is searched first when the depth is searched again
+                rootMoves.moveToFront(iteration.bestIndex);
+            } else {
+                return iteration;
+            }
+        }
+    }
+
+    // one iteration of the root search inside the window, run inside the pool
+    private RootIteration searchRoot(BitBoard position, PositionHistory gameHistory, MoveList rootMoves, PlayerType playerType, int depth, int windowAlpha, int beta, SearchControl searchControl) {
+        var iteration = new RootIteration();
+
+        // the eldest brother is searched first with the full window, if it fails high the window has to be widened anyway
+        iteration.bestScore = workers.get().searchRootMove(position, playerType, gameHistory, rootMoves.get(0), depth, windowAlpha, beta, searchControl);
+        if (iteration.bestScore >= beta) return iteration;
+
+        var alpha = new AtomicInteger(Math.max(windowAlpha, iteration.bestScore));
+
+        // the younger brothers are searched in parallel, each one starting with the best alpha known at the time
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for (int i = 1; i < rootMoves.size(); i++) {
+            final int index = i;
+
+            tasks.add(ForkJoinTask.adapt(() -> {
+                var moveAlpha = alpha.get();
+                if (moveAlpha >= beta) return;
+
+                // a null window shows the move is no better, only a better move is searched again with the full window
+                var worker = workers.get();
+                var score = worker.searchRootMove(position, playerType, gameHistory, rootMoves.get(index), depth, moveAlpha, moveAlpha + 1, searchControl);
+
+                if (score > moveAlpha && score < beta && !searchControl.isStopped()) {
+                    score = worker.searchRootMove(position, playerType, gameHistory, rootMoves.get(index), depth, moveAlpha, beta, searchControl);
+                }
+
+                if (score > moveAlpha && !searchControl.isStopped()) {
+                    iteration.offer(index, score);
+                    alpha.accumulateAndGet(score, Math::max);
+                }
+            }));
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+
+        return iteration;
+    }
+
+    // best move of a root iteration, updated by the workers as they finish
+    private static class RootIteration {
+        private int bestIndex;
+        private int bestScore;
+
+        // ties go to the move earlier in the list, as in the serial search
+        synchronized void offer(int index, int score) {
+            if (score > bestScore || (score == bestScore && index < bestIndex)) {
+                bestIndex = index;
+                bestScore = score;
+            }
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Evaluation;
+import com.farah.model.Move;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.util.function.Consumer;
+
+/**
+ * Search is the make/unmake implementation of the minimax algorithm with alpha-beta pruning, in negamax form. One
+ * mutable BitBoard is used for the whole search, a move is applied on the way down and taken back with its undo record
+ * on the way up, and the evaluation from the computer's point of view (BitBoard.getEvaluation) is negated when the human
+ * is to move, so the max and min players share one code path.
+ * Searches are driven by iterative deepening until the depth, time or node limit is reached. Results are kept in a
+ * transposition table between searches, and move lists, pickers and undo records are preallocated per ply, so once a
+ * search is running it creates no garbage. The work done is counted in a SearchStats returned with every result.
+ * A Search instance is not thread safe but can be reused for any number of searches.
+ */
+public class Search {
+    public static final int INFINITY = 1000;
+    public static final int WIN_SCORE = 900;
+    public static final int DRAW_SCORE = 0;
+    public static final int MAX_PLY = 128;
+
+    // scores beyond this are wins or losses at a known distance from the root
+    private static final int WIN_THRESHOLD = WIN_SCORE - MAX_PLY;
+
+    // how often (in nodes) the budgets are checked, checking them at every node would cost more than the check is worth
+    private static final int CHECK_INTERVAL = 1024;
+
+    // half the width of the first aspiration window and the first depth to use one. The window is half a man, rounded up:
+    // winning a man moves the score by its weight and the piece count weight on both sides, while positional terms move
+    // it by one, so a narrower window fails on almost every change of score and the re-searches cost more than they save
+    static final int ASPIRATION_WINDOW = (Evaluation.getWeight(Evaluation.MAN) + 2 * Evaluation.getWeight(Evaluation.PIECE_COUNT) + 1) / 2;
+    static final int ASPIRATION_DEPTH = 4;
+
+    // late move reductions start with the move at this index, at this remaining depth, and take off one ply. Reducing
+    // the latest moves by two plies lost more strength than the extra depth gained
+    private static final int REDUCTION_MOVES = 3;
+    private static final int REDUCTION_DEPTH = 3;
+    private static final int REDUCTION = 1;
+
+    // futility pruning is used up to this remaining depth, with a margin of about a man per ply
+    private static final int FUTILITY_DEPTH = 2;
+    private static final int FUTILITY_MARGIN = 5;
+
+    private final BitBoard board = new BitBoard(0, 0, 0);
+    private final MoveUndo[] undoRecords = new MoveUndo[MAX_PLY];
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    private final MoveList rootMoves = new MoveList();
+    private final PositionHistory history = new PositionHistory();
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    private final Tablebase tablebase;
+    private final SearchStats stats = new SearchStats();
+    private final NeuralEvaluator neuralEvaluator;
+    private EvaluationType evaluation = EvaluationType.HEURISTIC;
+
+    // nodes searched since they were last reported to the search control
+    private long pendingNodes;
+    private volatile SearchControl control = new SearchControl(SearchLimits.INFINITE);
+    private int rootScore;
+
+    public Search() {
+        this(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    public Search(TranspositionTable transpositionTable) {
+        this(transpositionTable, Tablebase.getDefault());
+    }
+
+    public Search(TranspositionTable transpositionTable, Tablebase tablebase) {
+        this(transpositionTable, tablebase, NeuralNetwork.getDefault());
+    }
+
+    public Search(TranspositionTable transpositionTable, Tablebase tablebase, NeuralNetwork network) {
+        this.transpositionTable = transpositionTable;
+        this.tablebase = tablebase;
+        this.neuralEvaluator = new NeuralEvaluator(network);
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            undoRecords[ply] = new MoveUndo();
+            moveLists[ply] = new MoveList();
+            movePickers[ply] = new MovePicker(moveOrdering);
+        }
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    // the counters of the current or last search
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    // search all root moves of the position to the given depth and return the best one, null if there are no moves
+    public Move getBestMove(BitBoard position, PlayerType playerType, int maxDepth) {
+        return search(position, playerType, SearchLimits.depth(maxDepth)).getBestMove();
+    }
+
+    // ask a running search to stop, it returns the best move from the last completed depth
+    public void stop() {
+        control.stop();
+    }
+
+    public SearchResult search(BitBoard position, PlayerType playerType, SearchLimits limits) {
+        return search(position, playerType, limits, result -> { });
+    }
+
+    public SearchResult search(BitBoard position, PlayerType playerType, SearchLimits limits, Consumer<SearchResult> listener) {
+        return search(position, playerType, new PositionHistory(), limits, listener);
+    }
+
+    // iterative deepening driver, searches one depth deeper each iteration until a limit is reached. The game history
+    // holds the positions played so far and ends with the position searched, or is empty when no history is known. The
+    // listener is called with the result of every completed depth
+    public SearchResult search(BitBoard position, PlayerType playerType, PositionHistory gameHistory, SearchLimits limits, Consumer<SearchResult> listener) {
+        control = new SearchControl(limits);
+        board.set(position);
+        setHistory(gameHistory, position, playerType);
+
+        // the scores of the heuristic and the network do not mix, the table is cleared when the evaluation changes
+        if (limits.getEvaluation() != evaluation) {
+            evaluation = limits.getEvaluation();
+            transpositionTable.clear();
+        }
+
+        transpositionTable.newSearch();
+        moveOrdering.newSearch();
+        stats.reset();
+        pendingNodes = 0;
+
+        board.generateMoves(playerType, rootMoves);
+
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(null, -WIN_SCORE, 0, 0, 0);
+        }
+
+        var maxDepth = limits.hasDepthLimit() ? Math.min(limits.getMaxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        var bestMove = rootMoves.get(0);
+        var bestScore = 0;
+        var completedDepth = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            var iterationStart = control.getElapsedMillis();
+            var iterationNodes = stats.nodes;
+            var iterationBest = searchIteration(playerType, depth, bestScore);
+
+            // an interrupted iteration is thrown away, its moves were not all searched to the full depth
+            if (control.isStopped()) break;
+
+            bestMove = rootMoves.get(iterationBest);
+            bestScore = rootScore;
+            completedDepth = depth;
+
+            stats.recordIteration(depth, stats.nodes - iterationNodes, control.getElapsedMillis() - iterationStart);
+            listener.accept(new SearchResult(MoveEncoding.toMove(bestMove), bestScore, depth, control.getNodes() + pendingNodes,
+                    control.getElapsedMillis(), new SearchStats(stats)));
+
+            // search the best move first on the next iteration
+            rootMoves.moveToFront(iterationBest);
+
+            // nothing more to learn with a single legal move or a forced win/loss
+            if (rootMoves.size() == 1 || Math.abs(bestScore) >= WIN_THRESHOLD) break;
+        }
+
+        control.addNodes(pendingNodes);
+        pendingNodes = 0;
+
+        return new SearchResult(MoveEncoding.toMove(bestMove), getPonderMove(position, playerType, bestMove, transpositionTable),
+                bestScore, completedDepth, control.getNodes(), control.getElapsedMillis(), new SearchStats(stats));
+    }
+
+    // the game history with the root position on top. Only the caller knows whether the move to the root could be
+    // undone, so a history which does not end with the root is refused rather than guessed at
+    private void setHistory(PositionHistory gameHistory, BitBoard position, PlayerType playerType) {
+        var key = position.getKey(playerType);
+        history.set(gameHistory);
+
+        if (history.isEmpty()) {
+            history.push(key, false);
+        } else if (history.getLastKey() != key) {
+            throw new IllegalArgumentException("The game history does not end with the position searched");
+        }
+    }
+
+    // the best reply to the move according to the transposition table, null if there is none
+    static Move getPonderMove(BitBoard position, PlayerType playerType, int move, TranspositionTable transpositionTable) {
+        var board = new BitBoard(position);
+        board.makeMove(move, playerType, new MoveUndo());
+
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var entry = transpositionTable.probe(board.getKey(oppPlayer));
+        if (entry == TranspositionTable.MISS) return null;
+
+        // the entry may belong to another position with the same key, so the move has to be legal here
+        var reply = TranspositionTable.getMove(entry);
+        var replies = new MoveList();
+        board.generateMoves(oppPlayer, replies);
+
+        return reply != MoveEncoding.NO_MOVE && replies.indexOf(reply) >= 0 ? MoveEncoding.toMove(reply) : null;
+    }
+
+    // searches one depth inside an aspiration window around the previous score, doubling the widening on the side the
+    // score fell out of on each failure until the score lies inside it. Returns the index of the best move and sets rootScore
+    private int searchIteration(PlayerType playerType, int depth, int previousScore) {
+        var delta = ASPIRATION_WINDOW;
+        var alpha = -INFINITY;
+        var beta = INFINITY;
+
+        if (depth >= ASPIRATION_DEPTH) {
+            alpha = Math.max(previousScore - delta, -INFINITY);
+            beta = Math.min(previousScore + delta, INFINITY);
+        }
+
+        while (true) {
+            var bestIndex = searchRoot(playerType, depth, alpha, beta);
+
+            if (control.isStopped()) return bestIndex;
+
+            delta *= 2;
+
+            if (rootScore <= alpha && alpha > -INFINITY) {
+                alpha = Math.max(rootScore - delta, -INFINITY);
+            } else if (rootScore >= beta && beta < INFINITY) {
+                beta = Math.min(rootScore + delta, INFINITY);
+
+                // the move that failed high is searched first when the depth is searched again
+                rootMoves.moveToFront(bestIndex);
+            } else {
+                return bestIndex;
+            }
+        }
+    }
+
+    // searches every root move to the given depth inside the window, returns the index of the best move and sets rootScore
+    private int searchRoot(PlayerType playerType, int depth, int alpha, int beta) {
+        var originalAlpha = alpha;
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var bestIndex = 0;
+        var bestScore = -INFINITY;
+
+        for (int i = 0; i < rootMoves.size(); i++) {
+            var move = rootMoves.get(i);
+
+            makeMove(move, playerType, undoRecords[0]);
+            var score = searchChild(oppPlayer, depth, 0, alpha, beta, i == 0);
+            unmakeMove(move, playerType, undoRecords[0]);
+
+            if (control.isStopped()) return bestIndex;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = i;
+            }
+
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) break;
+        }
+
+        rootScore = bestScore;
+        transpositionTable.store(board.getKey(playerType), depth, getBound(bestScore, originalAlpha, beta), bestScore, rootMoves.get(bestIndex));
+
+        return bestIndex;
+    }
+
+    // principal variation search of the child after a move, returns its score from the point of view of the parent. The
+    // first move gets the full window, any other move a null window which only proves that it is no better than alpha,
+    // and a move which does turn out better is searched again with the full window to get its real score
+    private int searchChild(PlayerType playerType, int depth, int ply, int alpha, int beta, boolean isFirstMove) {
+        if (isFirstMove) {
+            return -alphaBeta(playerType, depth - 1, ply + 1, -beta, -alpha);
+        }
+
+        var score = -alphaBeta(playerType, depth - 1, ply + 1, -alpha - 1, -alpha);
+
+        if (score > alpha && score < beta && !control.isStopped()) {
+            score = -alphaBeta(playerType, depth - 1, ply + 1, -beta, -alpha);
+        }
+
+        return score;
+    }
+
+    // searches one root move on behalf of a parallel search which shares its control and transposition table, the score
+    // is from the point of view of the root player and only a bound when it falls outside the window
+    int searchRootMove(BitBoard position, PlayerType playerType, PositionHistory gameHistory, int move, int depth, int alpha, int beta, SearchControl control) {
+        // the parallel search has already cleared the shared table if the evaluation changed
+        if (this.control != control) {
+            moveOrdering.newSearch();
+            evaluation = control.getLimits().getEvaluation();
+            setHistory(gameHistory, position, playerType);
+            this.control = control;
+        }
+
+        board.set(position);
+        pendingNodes = 0;
+
+        makeMove(move, playerType, undoRecords[0]);
+        var score = -alphaBeta(BitBoard.getOppPlayer(playerType), depth - 1, 1, -beta, -alpha);
+        unmakeMove(move, playerType, undoRecords[0]);
+
+        control.addNodes(pendingNodes);
+        pendingNodes = 0;
+
+        return score;
+    }
+
+    // fixed depth alpha-beta without iterative deepening, the score of the position from the computers point of view
+    public int minimax(BitBoard position, int maxDepth, int alpha, int beta, boolean isMaxPlayer) {
+        control = new SearchControl(SearchLimits.INFINITE);
+        board.set(position);
+        setHistory(new PositionHistory(), position, isMaxPlayer ? PlayerType.COMPUTER : PlayerType.HUMAN);
+        transpositionTable.newSearch();
+        moveOrdering.newSearch();
+        stats.reset();
+
+        if (isMaxPlayer) {
+            return alphaBeta(PlayerType.COMPUTER, maxDepth, 0, alpha, beta);
+        }
+
+        return -alphaBeta(PlayerType.HUMAN, maxDepth, 0, -beta, -alpha);
+    }
+
+    // negamax alpha-beta, scores are from the point of view of the player to move
+    private int alphaBeta(PlayerType playerType, int depth, int ply, int alpha, int beta) {
+        // a position reached before, earlier in the game or in the line being searched, is a draw. Going round the cycle
+        // of king moves again cannot change that, so it is not searched
+        if (ply > 0 && history.isRepetition()) {
+            stats.repetitions++;
+            return DRAW_SCORE;
+        }
+
+        // at the horizon only the captures are played out
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(playerType, ply, alpha, beta);
+        }
+
+        // check the budgets every so often, once stopped every node returns straight away and the result is discarded
+        stats.nodes++;
+
+        if (++pendingNodes == CHECK_INTERVAL) {
+            control.addNodes(pendingNodes);
+            pendingNodes = 0;
+        }
+
+        if (control.isStopped()) return 0;
+
+        // endgames in the tablebase have an exact result, there is no need to search them
+        if (tablebase.contains(board)) {
+            stats.tablebaseHits++;
+            return getTablebaseScore(tablebase.probe(board, playerType), ply);
+        }
+
+        // a previous search of this position to at least the same depth may already decide this node
+        var key = board.getKey(playerType);
+        var entry = transpositionTable.probe(key);
+        var tableMove = entry != TranspositionTable.MISS ? TranspositionTable.getMove(entry) : 0;
+
+        stats.transpositionProbes++;
+        if (entry != TranspositionTable.MISS) stats.transpositionHits++;
+
+        if (entry != TranspositionTable.MISS && TranspositionTable.getDepth(entry) >= depth) {
+            var score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+            var bound = TranspositionTable.getBound(entry);
+
+            if (bound == TranspositionTable.EXACT) return score;
+            if (bound == TranspositionTable.LOWER_BOUND && score >= beta) return score;
+            if (bound == TranspositionTable.UPPER_BOUND && score <= alpha) return score;
+        }
+
+        // moves come in the order of MoveOrdering (table move, captures, crowning moves, killers, history), and the
+        // quiet moves are only generated once the table move and killers have failed to cause a cutoff
+        var picker = movePickers[ply];
+        picker.init(board, playerType, tableMove, ply);
+
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var undo = undoRecords[ply];
+        var originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = MoveEncoding.NO_MOVE;
+
+        // captures are mandatory, so either every move is a capture or none is. Only quiet positions without a threat
+        // against the player to move, away from won or lost scores, are searched selectively
+        var isSelective = !picker.isCapturePosition() && !board.hasCaptures(oppPlayer)
+                && Math.abs(alpha) < WIN_THRESHOLD && Math.abs(beta) < WIN_THRESHOLD;
+        var isPvNode = beta - alpha > 1;
+        var futilityScore = isSelective && !isPvNode && depth <= FUTILITY_DEPTH ? evaluate(playerType) + FUTILITY_MARGIN * depth : INFINITY;
+
+        int move;
+        int moveCount = 0;
+
+        while ((move = picker.next()) != MoveEncoding.NO_MOVE) {
+            var i = moveCount++;
+
+            makeMove(move, playerType, undo);
+
+            // a move which crowns or offers the opponent a capture may change the material, it is always searched in full
+            var isQuietMove = isSelective && !MoveEncoding.isCrownMove(move) && !board.hasCaptures(oppPlayer);
+            int score;
+
+            // futility pruning: next to the horizon a quiet move is skipped when even winning a man would not lift the
+            // static evaluation to alpha
+            if (isQuietMove && i > 0 && futilityScore <= alpha) {
+                unmakeMove(move, playerType, undo);
+                stats.futilityPrunes++;
+                bestScore = Math.max(bestScore, futilityScore);
+                continue;
+            }
+
+            // late move reductions: a quiet move late in the order is searched to a reduced depth, and only searched again
+            // to the full depth if it beats alpha
+            if (isQuietMove && i >= REDUCTION_MOVES && depth >= REDUCTION_DEPTH) {
+                stats.reducedMoves++;
+                score = -alphaBeta(oppPlayer, depth - 1 - REDUCTION, ply + 1, -alpha - 1, -alpha);
+
+                if (score > alpha && !control.isStopped()) {
+                    stats.reductionResearches++;
+                    score = searchChild(oppPlayer, depth, ply, alpha, beta, false);
+                }
+            } else {
+                score = searchChild(oppPlayer, depth, ply, alpha, beta, i == 0);
+            }
+
+            unmakeMove(move, playerType, undo);
+
+            if (control.isStopped()) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+
+            alpha = Math.max(alpha, score);
+
+            //pruning
+            if (alpha >= beta) {
+                stats.betaCutoffs++;
+                if (i == 0) stats.firstMoveCutoffs++;
+
+                moveOrdering.recordCutoff(move, board, playerType, ply, depth);
+                break;
+            }
+        }
+
+        // a player who cannot move has lost, quicker wins are preferred
+        if (moveCount == 0) return -WIN_SCORE + ply;
+
+        transpositionTable.store(key, depth, getBound(bestScore, originalAlpha, beta), scoreToTable(bestScore, ply), bestMove);
+
+        return bestScore;
+    }
+
+    // make a move on the board and add the new position to the history, the quiescence search only plays captures and
+    // so never reaches a position from before, it uses the board directly
+    private void makeMove(int move, PlayerType playerType, MoveUndo undo) {
+        var isReversible = board.isReversibleMove(move);
+        board.makeMove(move, playerType, undo);
+        history.push(board.getKey(BitBoard.getOppPlayer(playerType)), isReversible);
+    }
+
+    private void unmakeMove(int move, PlayerType playerType, MoveUndo undo) {
+        history.pop();
+        board.unmakeMove(move, playerType, undo);
+    }
+
+    // the score is a bound rather than exact if it fell outside the original window
+    static int getBound(int score, int alpha, int beta) {
+        if (score <= alpha) return TranspositionTable.UPPER_BOUND;
+        if (score >= beta) return TranspositionTable.LOWER_BOUND;
+        return TranspositionTable.EXACT;
+    }
+
+    // searches captures only until the player to move has none, so an exchange is never cut off halfway at the horizon.
+    // Captures are mandatory, so there is no standing pat while one is available. The nodes are counted as quiescence
+    // nodes
+    private int quiesce(PlayerType playerType, int ply, int alpha, int beta) {
+        stats.nodes++;
+        stats.quiescenceNodes++;
+
+        if (++pendingNodes == CHECK_INTERVAL) {
+            control.addNodes(pendingNodes);
+            pendingNodes = 0;
+        }
+
+        if (control.isStopped()) return 0;
+
+        if (tablebase.contains(board)) {
+            stats.tablebaseHits++;
+            return getTablebaseScore(tablebase.probe(board, playerType), ply);
+        }
+
+        var moves = moveLists[Math.min(ply, MAX_PLY - 1)];
+        board.generateCaptures(playerType, moves);
+
+        // a quiet position is scored as it stands, a player who cannot move has lost and quicker wins are preferred
+        if (moves.isEmpty() || ply >= MAX_PLY - 1) {
+            if (!board.hasMoves(playerType)) return -WIN_SCORE + ply;
+
+            stats.leafEvaluations++;
+            return evaluate(playerType);
+        }
+
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var undo = undoRecords[ply];
+        int bestScore = -INFINITY;
+
+        for (int i = 0; i < moves.size(); i++) {
+            var move = moves.get(i);
+
+            board.makeMove(move, playerType, undo);
+            var score = -quiesce(oppPlayer, ply + 1, -beta, -alpha);
+            board.unmakeMove(move, playerType, undo);
+
+            if (control.isStopped()) return 0;
+
+            bestScore = Math.max(bestScore, score);
+            alpha = Math.max(alpha, score);
+
+            if (alpha >= beta) break;
+        }
+
+        return bestScore;
+    }
+
+    // leaves are scored by the heuristic or, when the limits ask for it, by the neural network
+    private int evaluate(PlayerType playerType) {
+        var score = evaluation == EvaluationType.NEURAL ? neuralEvaluator.evaluate(board) : board.getEvaluation(PlayerType.COMPUTER);
+        return playerType.equals(PlayerType.COMPUTER) ? score : -score;
+    }
+
+    // a tablebase result as a search score, using the same distance convention as a player who cannot move
+    private static int getTablebaseScore(int entry, int ply) {
+        if (entry == 0) return DRAW_SCORE;
+
+        var distance = Math.min(ply + Tablebase.getDistance(entry), MAX_PLY - 1);
+        return Tablebase.isWin(entry) ? WIN_SCORE - distance : -WIN_SCORE + distance;
+    }
+
+    // win and loss scores depend on the distance from the root, so the table stores them relative to the node instead
+    private static int scoreToTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score + ply;
+        if (score <= -WIN_THRESHOLD) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score - ply;
+        if (score <= -WIN_THRESHOLD) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,80 @@
+package com.farah.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SearchControl holds the budget of a single search and the flag used to stop it. It is shared by every thread working
+ * on the same search: workers report their nodes in batches, and the first one to notice a spent budget stops them all.
+ * A pondering search has no time or node budget until ponderHit, from then on it gets the budget of its limits.
+ */
+class SearchControl {
+    private final long startTime;
+    private final SearchLimits limits;
+    private final AtomicLong nodes = new AtomicLong();
+
+    private volatile long deadline;
+    private volatile long nodeLimit;
+    private volatile boolean pondering;
+    private volatile boolean stopped;
+
+    SearchControl(SearchLimits limits) {
+        this(limits, false);
+    }
+
+    SearchControl(SearchLimits limits, boolean pondering) {
+        this.startTime = System.currentTimeMillis();
+        this.limits = limits;
+        this.pondering = pondering;
+        this.deadline = Long.MAX_VALUE;
+        this.nodeLimit = Long.MAX_VALUE;
+
+        if (!pondering) startBudget();
+    }
+
+    // the budget of the limits counts from now
+    private void startBudget() {
+        nodeLimit = limits.hasNodeLimit() ? nodes.get() + limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = limits.hasTimeLimit() ? System.currentTimeMillis() + limits.getMoveTimeMillis() : Long.MAX_VALUE;
+    }
+
+    // the predicted move was played, the pondering search carries on as a normal search
+    synchronized void ponderHit() {
+        if (!pondering) return;
+
+        pondering = false;
+        startBudget();
+    }
+
+    SearchLimits getLimits() {
+        return limits;
+    }
+
+    boolean isPondering() {
+        return pondering;
+    }
+
+    // add a batch of searched nodes and check the budgets, returns true once the search should stop
+    boolean addNodes(long count) {
+        if (nodes.addAndGet(count) >= nodeLimit || System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+
+        return stopped;
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    long getNodes() {
+        return nodes.get();
+    }
+
+    long getElapsedMillis() {
+        return System.currentTimeMillis() - startTime;
+    }
+}
@@ -0,0 +1,95 @@
+package com.farah.engine;
+
+import java.util.Objects;
+
+/**
+ * SearchLimits describes how much work the iterative deepening search may do for one move. Any combination of a maximum
+ * depth, a wall clock budget in milliseconds and a node budget can be given, the search stops at whichever is reached
+ * first. A value of zero means that limit is not used. The limits also say which evaluation the search scores its
+ * leaves with, the heuristic unless another is given.
+ */
+public class SearchLimits {
+    public static final SearchLimits INFINITE = new SearchLimits(0, 0, 0);
+
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    private final long maxNodes;
+    private final EvaluationType evaluation;
+
+    public SearchLimits(int maxDepth, long moveTimeMillis, long maxNodes) {
+        this(maxDepth, moveTimeMillis, maxNodes, EvaluationType.HEURISTIC);
+    }
+
+    public SearchLimits(int maxDepth, long moveTimeMillis, long maxNodes, EvaluationType evaluation) {
+        this.maxDepth = maxDepth;
+        this.moveTimeMillis = moveTimeMillis;
+        this.maxNodes = maxNodes;
+        this.evaluation = evaluation;
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits time(long moveTimeMillis) {
+        return new SearchLimits(0, moveTimeMillis, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, 0, maxNodes);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public EvaluationType getEvaluation() {
+        return evaluation;
+    }
+
+    // the same limits scoring with another evaluation
+    public SearchLimits withEvaluation(EvaluationType evaluation) {
+        return new SearchLimits(maxDepth, moveTimeMillis, maxNodes, evaluation);
+    }
+
+    public boolean hasDepthLimit() {
+        return maxDepth > 0;
+    }
+
+    public boolean hasTimeLimit() {
+        return moveTimeMillis > 0;
+    }
+
+    public boolean hasNodeLimit() {
+        return maxNodes > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchLimits)) return false;
+
+        var other = (SearchLimits) o;
+        return maxDepth == other.maxDepth && moveTimeMillis == other.moveTimeMillis && maxNodes == other.maxNodes
+                && evaluation == other.evaluation;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxDepth, moveTimeMillis, maxNodes, evaluation);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, time %dms, nodes %d, %s evaluation", maxDepth, moveTimeMillis, maxNodes,
+                evaluation.name().toLowerCase());
+    }
+}
@@ -0,0 +1,76 @@
+package com.farah.engine;
+
+import com.farah.model.Move;
+
+/**
+ * SearchResult holds the outcome of a search: the best move from the last fully completed depth, its score from the
+ * point of view of the player to move, the depth reached and the work done to get there, with the detailed counters of
+ * the search in its SearchStats. The ponder move is the reply the search expects from the opponent, if it knows one.
+ */
+public class SearchResult {
+    private final Move bestMove;
+    private final Move ponderMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final SearchStats stats;
+
+    public SearchResult(Move bestMove, int score, int depth, long nodes, long elapsedMillis) {
+        this(bestMove, score, depth, nodes, elapsedMillis, new SearchStats());
+    }
+
+    public SearchResult(Move bestMove, int score, int depth, long nodes, long elapsedMillis, SearchStats stats) {
+        this(bestMove, null, score, depth, nodes, elapsedMillis, stats);
+    }
+
+    public SearchResult(Move bestMove, Move ponderMove, int score, int depth, long nodes, long elapsedMillis, SearchStats stats) {
+        this.bestMove = bestMove;
+        this.ponderMove = ponderMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.stats = stats;
+    }
+
+    // null when the player to move has no legal moves
+    public Move getBestMove() {
+        return bestMove;
+    }
+
+    // null when no reply is known
+    public Move getPonderMove() {
+        return ponderMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedMillis == 0 ? nodes * 1000 : nodes * 1000 / elapsedMillis;
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d score %d nodes %d time %dms nps %d %s", depth, score, nodes, elapsedMillis,
+                getNodesPerSecond(), stats);
+    }
+}
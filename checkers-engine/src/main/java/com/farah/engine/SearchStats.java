@@ -0,0 +1,173 @@
+package com.farah.engine;
+
+import java.util.Arrays;
+
+/**
+ * SearchStats counts the work done by a search: nodes and how many of them were quiescence nodes, leaf evaluations,
+ * beta cutoffs and how many of them came from the first move tried, late move reductions and futility prunes,
+ * transposition table probes and hits, tablebase hits, repeated positions, and the nodes and time of every iteration of
+ * the iterative deepening. The counters are plain longs owned by a single Search, so counting costs one increment and can be left on
+ * all the time; a parallel search keeps one per worker and adds them together after every iteration.
+ */
+public class SearchStats {
+    // the counters are incremented directly by Search, everyone else reads them through the getters
+    long nodes;
+    long quiescenceNodes;
+    long leafEvaluations;
+    long betaCutoffs;
+    long firstMoveCutoffs;
+    long reducedMoves;
+    long reductionResearches;
+    long futilityPrunes;
+    long transpositionProbes;
+    long transpositionHits;
+    long tablebaseHits;
+    long repetitions;
+
+    private final long[] iterationNodes = new long[Search.MAX_PLY];
+    private final long[] iterationMillis = new long[Search.MAX_PLY];
+    private int depth;
+
+    public SearchStats() {
+    }
+
+    public SearchStats(SearchStats other) {
+        add(other);
+        System.arraycopy(other.iterationNodes, 0, iterationNodes, 0, iterationNodes.length);
+        System.arraycopy(other.iterationMillis, 0, iterationMillis, 0, iterationMillis.length);
+        depth = other.depth;
+    }
+
+    public void reset() {
+        clearCounters();
+        Arrays.fill(iterationNodes, 0);
+        Arrays.fill(iterationMillis, 0);
+        depth = 0;
+    }
+
+    // clear the node counters but keep the iterations
+    void clearCounters() {
+        nodes = 0;
+        quiescenceNodes = 0;
+        leafEvaluations = 0;
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        reducedMoves = 0;
+        reductionResearches = 0;
+        futilityPrunes = 0;
+        transpositionProbes = 0;
+        transpositionHits = 0;
+        tablebaseHits = 0;
+        repetitions = 0;
+    }
+
+    // add the node counters of another search, used to combine the workers of a parallel search
+    void add(SearchStats other) {
+        nodes += other.nodes;
+        quiescenceNodes += other.quiescenceNodes;
+        leafEvaluations += other.leafEvaluations;
+        betaCutoffs += other.betaCutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+        reducedMoves += other.reducedMoves;
+        reductionResearches += other.reductionResearches;
+        futilityPrunes += other.futilityPrunes;
+        transpositionProbes += other.transpositionProbes;
+        transpositionHits += other.transpositionHits;
+        tablebaseHits += other.tablebaseHits;
+        repetitions += other.repetitions;
+    }
+
+    // record a completed iteration, nodes and time are those of the iteration alone
+    void recordIteration(int depth, long nodes, long millis) {
+        iterationNodes[depth] = nodes;
+        iterationMillis[depth] = millis;
+        this.depth = depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // the part of the nodes searched by the quiescence search
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    public long getLeafEvaluations() {
+        return leafEvaluations;
+    }
+
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    // share of the cutoffs caused by the first move tried, the closer to 1 the better the move ordering
+    public double getFirstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    // moves searched to a reduced depth, and how many of them had to be searched again to the full depth
+    public long getReducedMoves() {
+        return reducedMoves;
+    }
+
+    public long getReductionResearches() {
+        return reductionResearches;
+    }
+
+    public long getFutilityPrunes() {
+        return futilityPrunes;
+    }
+
+    public long getTranspositionProbes() {
+        return transpositionProbes;
+    }
+
+    public long getTranspositionHits() {
+        return transpositionHits;
+    }
+
+    public double getTranspositionHitRate() {
+        return transpositionProbes == 0 ? 0 : (double) transpositionHits / transpositionProbes;
+    }
+
+    public long getRepetitions() {
+        return repetitions;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    // the deepest completed iteration
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getIterationNodes(int depth) {
+        return iterationNodes[depth];
+    }
+
+    public long getIterationMillis(int depth) {
+        return iterationMillis[depth];
+    }
+
+    // how many times more nodes the last iteration needed than the one before, 0 before the second iteration
+    public double getEffectiveBranchingFactor() {
+        if (depth < 2 || iterationNodes[depth - 1] == 0) return 0;
+
+        return (double) iterationNodes[depth] / iterationNodes[depth - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("qnodes %d evals %d cutoffs %d first %.1f%% reduced %d researched %d futile %d ebf %.2f tt hits %.1f%% tb hits %d repetitions %d",
+                quiescenceNodes, leafEvaluations, betaCutoffs, getFirstMoveCutoffRate() * 100, reducedMoves,
+                reductionResearches, futilityPrunes, getEffectiveBranchingFactor(), getTranspositionHitRate() * 100,
+                tablebaseHits, repetitions);
+    }
+}
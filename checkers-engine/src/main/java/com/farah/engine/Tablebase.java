@@ -0,0 +1,198 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Tablebase gives the exact result of endgame positions from a file built by TablebaseGenerator. The file is memory
+ * mapped rather than read, so the operating system pages in only the parts the search touches and none of it is kept on
+ * the heap, and a probe is a slice lookup, an index calculation and a single byte read.
+ * Each entry is one byte from the point of view of the player to move: 0 is a draw, a positive value d is a win in d
+ * plies and a negative value -(d + 1) is a loss in d plies, where a loss in 0 plies is a player who cannot move.
+ * A file may leave out some slices, positions of those are not covered and probe returns UNKNOWN for them.
+ * File layout (big endian): magic, version, maximum number of pieces and number of slices, then for every slice the
+ * four piece counts (computer men, computer kings, human men, human kings) and the offset of its entries from the start
+ * of the data, then the entries of all slices.
+ * The engine uses the file named by the checkers.tablebase system property, if there is one.
+ */
+public class Tablebase {
+    public static final String FILE_PROPERTY = "checkers.tablebase";
+
+    static final int MAGIC = 0x434B5442;
+    static final int VERSION = 2;
+
+    // returned by probe for a position whose slice is not in the file, it is outside the range of the byte entries
+    public static final int UNKNOWN = Byte.MIN_VALUE - 1;
+
+    // a tablebase with no positions, used when no file is configured
+    public static final Tablebase NONE = new Tablebase(0, new long[1], ByteBuffer.allocate(0));
+
+    private static volatile Tablebase defaultTablebase;
+
+    private final int maxPieces;
+    private final long[] sliceOffsets;
+    private final ByteBuffer entries;
+
+    private Tablebase(int maxPieces, long[] sliceOffsets, ByteBuffer entries) {
+        this.maxPieces = maxPieces;
+        this.sliceOffsets = sliceOffsets;
+        this.entries = entries;
+    }
+
+    // the tablebase named by the system property, opened once and shared by every search
+    public static Tablebase getDefault() {
+        if (defaultTablebase == null) {
+            synchronized (Tablebase.class) {
+                if (defaultTablebase == null) defaultTablebase = openDefault();
+            }
+        }
+
+        return defaultTablebase;
+    }
+
+    private static Tablebase openDefault() {
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null) return NONE;
+
+        try {
+            return open(Paths.get(file));
+        } catch (IOException e) {
+            System.err.println("Tablebase " + file + " could not be opened, searching without it: " + e.getMessage());
+            return NONE;
+        }
+    }
+
+    public static Tablebase open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(16);
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < 16 || header.getInt() != MAGIC) throw new IOException("Not a tablebase file");
+            if (header.getInt() != VERSION) throw new IOException("Unsupported tablebase version");
+
+            var maxPieces = header.getInt();
+            var sliceCount = header.getInt();
+
+            var sliceTable = ByteBuffer.allocate(sliceCount * 12);
+            channel.read(sliceTable, 16);
+            sliceTable.flip();
+
+            var sliceOffsets = new long[getSliceCount(maxPieces)];
+            Arrays.fill(sliceOffsets, -1);
+
+            for (int i = 0; i < sliceCount; i++) {
+                var computerMen = sliceTable.get();
+                var computerKings = sliceTable.get();
+                var humanMen = sliceTable.get();
+                var humanKings = sliceTable.get();
+                sliceOffsets[getSlice(maxPieces, computerMen, computerKings, humanMen, humanKings)] = sliceTable.getLong();
+            }
+
+            var dataStart = 16L + sliceCount * 12L;
+            var dataSize = channel.size() - dataStart;
+            if (dataSize > Integer.MAX_VALUE) throw new IOException("Tablebase files are limited to 2 GB");
+
+            // the mapping stays valid after the channel is closed
+            var entries = channel.map(FileChannel.MapMode.READ_ONLY, dataStart, dataSize);
+            return new Tablebase(maxPieces, sliceOffsets, entries);
+        }
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    // whether the tablebase has the result of the position, both players need at least one piece and the slice of the
+    // position has to be in the file
+    public boolean contains(BitBoard board) {
+        return board.getComputerPieces() != 0 && board.getHumanPieces() != 0
+                && Integer.bitCount(board.getComputerPieces() | board.getHumanPieces()) <= maxPieces
+                && sliceOffsets[getSlice(board)] >= 0;
+    }
+
+    // the entry of a position, from the point of view of the player to move, or UNKNOWN if its slice is not in the file
+    public int probe(BitBoard board, PlayerType playerToMove) {
+        var offset = sliceOffsets[getSlice(board)];
+        if (offset < 0) return UNKNOWN;
+
+        var kings = board.getKings();
+        var index = TablebaseIndex.getIndex(board.getComputerPieces() & ~kings, board.getComputerPieces() & kings,
+                board.getHumanPieces() & ~kings, board.getHumanPieces() & kings, playerToMove);
+
+        return entries.get((int) (offset + index));
+    }
+
+    // the slice of a position with no more than maxPieces pieces
+    private int getSlice(BitBoard board) {
+        var kings = board.getKings();
+
+        return getSlice(maxPieces, Integer.bitCount(board.getComputerPieces() & ~kings), Integer.bitCount(board.getComputerPieces() & kings),
+                Integer.bitCount(board.getHumanPieces() & ~kings), Integer.bitCount(board.getHumanPieces() & kings));
+    }
+
+    public static boolean isWin(int entry) {
+        return entry > 0;
+    }
+
+    public static boolean isLoss(int entry) {
+        return entry < 0;
+    }
+
+    // plies to the end of the game for a win or a loss
+    public static int getDistance(int entry) {
+        return entry > 0 ? entry : -entry - 1;
+    }
+
+    static byte toEntry(boolean isWin, int distance) {
+        return (byte) (isWin ? distance : -distance - 1);
+    }
+
+    // slices are numbered by their piece counts in base maxPieces + 1
+    static int getSlice(int maxPieces, int computerMen, int computerKings, int humanMen, int humanKings) {
+        var base = maxPieces + 1;
+        return ((computerMen * base + computerKings) * base + humanMen) * base + humanKings;
+    }
+
+    static int getSliceCount(int maxPieces) {
+        var base = maxPieces + 1;
+        return base * base * base * base;
+    }
+
+    // write a tablebase file, slices holds the piece counts of every slice and data their entries in the same order
+    static void write(Path file, int maxPieces, int[][] slices, byte[][] data) throws IOException {
+        var header = ByteBuffer.allocate(16 + slices.length * 12).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(maxPieces).putInt(slices.length);
+
+        long offset = 0;
+        for (int i = 0; i < slices.length; i++) {
+            for (int count : slices[i]) header.put((byte) count);
+            header.putLong(offset);
+            offset += data[i].length;
+        }
+
+        header.flip();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) channel.write(header);
+
+            for (byte[] entries : data) {
+                var buffer = ByteBuffer.wrap(entries);
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+        }
+
+        if (Files.size(file) != 16 + slices.length * 12L + offset) throw new IOException("Tablebase file is incomplete");
+    }
+}
@@ -0,0 +1,232 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * TablebaseGenerator builds the endgame tablebase read by Tablebase, for every position with up to a given number of
+ * pieces. The positions are split into slices by their number of men and kings on each side. A capture leads to a slice
+ * with fewer pieces and crowning to a slice with fewer men, so when slices are solved from the fewest pieces up, and
+ * within a piece count from the fewest men up, every move out of a slice leads to a slice which is already solved.
+ * A slice is solved by retrograde analysis in rounds of increasing distance: round 0 marks the positions where the
+ * player to move cannot move as lost, and round d marks as won in d plies every position with a move to a position lost
+ * in d - 1, and as lost in d plies every position whose moves all lead to positions already won. Positions left when
+ * the rounds stop finding anything are draws. Each round runs over the positions of the slice in parallel.
+ * A round can only decide a position one ply beyond a distance found in the slice or reached by a move out of it, so
+ * when a round finds nothing the rounds skip ahead to the next distance a move out of the slice leads to, and a slice is
+ * done when there is none left.
+ * Usage: TablebaseGenerator [file] [max pieces] [threads], the defaults are tablebase.bin, 4 pieces and all cores.
+ */
+public class TablebaseGenerator {
+    public static final int DEFAULT_MAX_PIECES = 4;
+
+    // distances have to fit in a signed byte entry
+    private static final int MAX_DISTANCE = Byte.MAX_VALUE - 1;
+
+    private final int maxPieces;
+    private final ForkJoinPool pool;
+    private final List<int[]> slices = new ArrayList<>();
+    private final byte[][] tables;
+    private final ThreadLocal<MoveList> moveLists = ThreadLocal.withInitial(MoveList::new);
+    private final ThreadLocal<MoveUndo> undoRecords = ThreadLocal.withInitial(MoveUndo::new);
+
+    public TablebaseGenerator(int maxPieces, int threads) {
+        this.maxPieces = maxPieces;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.tables = new byte[Tablebase.getSliceCount(maxPieces)][];
+    }
+
+    public static void main(String[] args) throws IOException {
+        var file = Paths.get(args.length > 0 ? args[0] : "tablebase.bin");
+        var maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_PIECES;
+        var threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        var generator = new TablebaseGenerator(maxPieces, threads);
+        generator.generate();
+        generator.write(file);
+    }
+
+    public void generate() {
+        try {
+            for (int pieces = 2; pieces <= maxPieces; pieces++) {
+                for (int men = 0; men <= pieces; men++) {
+                    for (int computerMen = 0; computerMen <= men; computerMen++) {
+                        for (int computerKings = 0; computerKings <= pieces - men; computerKings++) {
+                            var humanMen = men - computerMen;
+                            var humanKings = pieces - men - computerKings;
+
+                            if (computerMen + computerKings > 0 && humanMen + humanKings > 0) {
+                                solve(new int[]{computerMen, computerKings, humanMen, humanKings});
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        var data = new byte[slices.size()][];
+
+        for (int i = 0; i < slices.size(); i++) {
+            data[i] = tables[getSlice(slices.get(i))];
+        }
+
+        Tablebase.write(file, maxPieces, slices.toArray(new int[0][]), data);
+    }
+
+    private void solve(int[] counts) {
+        var start = System.currentTimeMillis();
+        var size = TablebaseIndex.getSliceSize(counts);
+        if (size > Integer.MAX_VALUE) throw new IllegalStateException("Slice is too big " + size);
+
+        var entries = new byte[(int) size];
+        tables[getSlice(counts)] = entries;
+        slices.add(counts);
+
+        var exitDistances = getExitDistances(counts, entries.length);
+        var distance = 0;
+        var rounds = 0;
+        long solved = 0;
+
+        while (true) {
+            var found = solveRound(counts, entries, distance);
+            solved += found;
+            rounds++;
+
+            // nothing in the slice is at this distance, so the next round which can decide a position is one ply beyond
+            // the next distance a move out of the slice leads to
+            if (found == 0) {
+                while (distance <= MAX_DISTANCE && !exitDistances[distance]) distance++;
+                if (distance > MAX_DISTANCE) break;
+            }
+
+            if (++distance > MAX_DISTANCE) throw new IllegalStateException("Distance too long for a tablebase entry");
+        }
+
+        System.out.printf("slice %d %d %d %d: %,d positions, %,d decided, %d rounds, %d ms%n", counts[0], counts[1],
+                counts[2], counts[3], size, solved, rounds, System.currentTimeMillis() - start);
+    }
+
+    // the distances of the wins and losses which moves out of the slice lead to, from slices already solved or to a
+    // position where the opponent has no pieces left
+    private boolean[] getExitDistances(int[] counts, int size) {
+        var slice = getSlice(counts);
+        var exitDistances = new boolean[MAX_DISTANCE + 1];
+
+        pool.submit(() -> IntStream.range(0, size).parallel().forEach(index -> {
+            var board = TablebaseIndex.getBoard(counts, index);
+            var playerType = TablebaseIndex.getPlayerToMove(index);
+            var oppPlayer = BitBoard.getOppPlayer(playerType);
+            var moves = moveLists.get();
+            var undo = undoRecords.get();
+
+            board.generateMoves(playerType, moves);
+
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i), playerType, undo);
+
+                if (getSlice(board) != slice) {
+                    var child = getEntry(board, oppPlayer);
+                    // only ever set to true, and the join makes the writes visible
+                    if (child != 0) exitDistances[Tablebase.getDistance(child)] = true;
+                }
+
+                board.unmakeMove(moves.get(i), playerType, undo);
+            }
+        })).join();
+
+        return exitDistances;
+    }
+
+    // one round of the retrograde analysis, returns the number of positions decided
+    private long solveRound(int[] counts, byte[] entries, int distance) {
+        var found = new LongAdder();
+
+        pool.submit(() -> IntStream.range(0, entries.length).parallel().forEach(index -> {
+            if (entries[index] != 0) return;
+
+            var entry = solvePosition(counts, index, distance);
+
+            if (entry != 0) {
+                entries[index] = entry;
+                found.increment();
+            }
+        })).join();
+
+        return found.sum();
+    }
+
+    // the entry of a position if it is decided at the given distance, otherwise 0
+    private byte solvePosition(int[] counts, int index, int distance) {
+        var board = TablebaseIndex.getBoard(counts, index);
+        var playerType = TablebaseIndex.getPlayerToMove(index);
+        var moves = moveLists.get();
+        var undo = undoRecords.get();
+
+        board.generateMoves(playerType, moves);
+
+        if (moves.isEmpty()) return distance == 0 ? Tablebase.toEntry(false, 0) : 0;
+        if (distance == 0) return 0;
+
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var allWon = true;
+        var longestWin = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i), playerType, undo);
+            var child = getEntry(board, oppPlayer);
+            board.unmakeMove(moves.get(i), playerType, undo);
+
+            // a move to a position the opponent loses in distance - 1 wins in distance
+            if (Tablebase.isLoss(child) && Tablebase.getDistance(child) == distance - 1) {
+                return Tablebase.toEntry(true, distance);
+            }
+
+            if (Tablebase.isWin(child)) {
+                longestWin = Math.max(longestWin, Tablebase.getDistance(child));
+            } else {
+                allWon = false;
+            }
+        }
+
+        // every move leads to a win for the opponent, and the longest of those wins has just been found
+        return allWon && longestWin == distance - 1 ? Tablebase.toEntry(false, distance) : 0;
+    }
+
+    // the entry of a position reached by a move, from the point of view of the player to move in it
+    private byte getEntry(BitBoard board, PlayerType playerToMove) {
+        if (board.getPieces(playerToMove) == 0) return Tablebase.toEntry(false, 0);
+
+        var kings = board.getKings();
+        var index = (int) TablebaseIndex.getIndex(board.getComputerPieces() & ~kings, board.getComputerPieces() & kings,
+                board.getHumanPieces() & ~kings, board.getHumanPieces() & kings, playerToMove);
+
+        return tables[getSlice(board)][index];
+    }
+
+    private int getSlice(int[] counts) {
+        return Tablebase.getSlice(maxPieces, counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    private int getSlice(BitBoard board) {
+        var kings = board.getKings();
+
+        return Tablebase.getSlice(maxPieces, Integer.bitCount(board.getComputerPieces() & ~kings),
+                Integer.bitCount(board.getComputerPieces() & kings), Integer.bitCount(board.getHumanPieces() & ~kings),
+                Integer.bitCount(board.getHumanPieces() & kings));
+    }
+}
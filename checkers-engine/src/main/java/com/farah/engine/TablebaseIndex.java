@@ -0,0 +1,144 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+
+/**
+ * TablebaseIndex maps the positions of one tablebase slice to consecutive indexes and back. A slice holds every
+ * position with a given number of computer men, computer kings, human men and human kings. The four groups of pieces
+ * are placed one after the other, each on the squares left free by the groups before it, and the placement of a group
+ * is ranked with the combinatorial number system, so the index of a position is computed from its pieces alone in a
+ * few steps and the slice needs no gaps. The player to move is the lowest bit of the index.
+ */
+class TablebaseIndex {
+    // group order used for ranking, matching the order of the piece counts in a slice
+    static final int COMPUTER_MEN = 0;
+    static final int COMPUTER_KINGS = 1;
+    static final int HUMAN_MEN = 2;
+    static final int HUMAN_KINGS = 3;
+
+    private static final long[][] BINOMIALS = new long[BitBoard.SQUARES + 1][BitBoard.SQUARES + 1];
+
+    static {
+        for (int n = 0; n <= BitBoard.SQUARES; n++) {
+            BINOMIALS[n][0] = 1;
+
+            for (int k = 1; k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private TablebaseIndex() {
+    }
+
+    static long binomial(int n, int k) {
+        return k < 0 || k > n ? 0 : BINOMIALS[n][k];
+    }
+
+    // number of positions in a slice, counting both players to move
+    static long getSliceSize(int[] counts) {
+        long size = 2;
+        var free = BitBoard.SQUARES;
+
+        for (int count : counts) {
+            size *= binomial(free, count);
+            free -= count;
+        }
+
+        return size;
+    }
+
+    // index of a position within its slice, computed without allocating as it is used by the search
+    static long getIndex(int computerMen, int computerKings, int humanMen, int humanKings, PlayerType playerToMove) {
+        var occupied = computerMen;
+        var free = BitBoard.SQUARES - Integer.bitCount(computerMen);
+        var index = rank(computerMen, 0);
+
+        index = index * binomial(free, Integer.bitCount(computerKings)) + rank(computerKings, occupied);
+        occupied |= computerKings;
+        free -= Integer.bitCount(computerKings);
+
+        index = index * binomial(free, Integer.bitCount(humanMen)) + rank(humanMen, occupied);
+        occupied |= humanMen;
+        free -= Integer.bitCount(humanMen);
+
+        index = index * binomial(free, Integer.bitCount(humanKings)) + rank(humanKings, occupied);
+
+        return (index << 1) | playerToMove.ordinal();
+    }
+
+    // the placement of a group as a rank among all placements on the free squares
+    private static long rank(int group, int occupied) {
+        long rank = 0;
+        var i = 1;
+
+        while (group != 0) {
+            var square = Integer.numberOfTrailingZeros(group);
+            var freeSquare = square - Integer.bitCount(occupied & ((1 << square) - 1));
+            rank += binomial(freeSquare, i++);
+            group &= group - 1;
+        }
+
+        return rank;
+    }
+
+    // the board of a slice index, the inverse of getIndex without the player to move
+    static BitBoard getBoard(int[] counts, long index) {
+        var position = index >>> 1;
+        var groups = new int[counts.length];
+        var sizes = new long[counts.length];
+        var free = BitBoard.SQUARES;
+
+        for (int i = 0; i < counts.length; i++) {
+            sizes[i] = binomial(free, counts[i]);
+            free -= counts[i];
+        }
+
+        // the last group is the least significant digit of the index
+        var ranks = new long[counts.length];
+        for (int i = counts.length - 1; i >= 0; i--) {
+            ranks[i] = position % sizes[i];
+            position /= sizes[i];
+        }
+
+        var occupied = 0;
+        for (int i = 0; i < counts.length; i++) {
+            groups[i] = unrank(ranks[i], counts[i], occupied);
+            occupied |= groups[i];
+        }
+
+        var kings = groups[COMPUTER_KINGS] | groups[HUMAN_KINGS];
+        return new BitBoard(groups[COMPUTER_MEN] | groups[COMPUTER_KINGS], groups[HUMAN_MEN] | groups[HUMAN_KINGS], kings);
+    }
+
+    static PlayerType getPlayerToMove(long index) {
+        return PlayerType.values()[(int) (index & 1)];
+    }
+
+    private static int unrank(long rank, int count, int occupied) {
+        var group = 0;
+        var freeSquare = BitBoard.SQUARES;
+
+        for (int i = count; i >= 1; i--) {
+            // the highest free square whose binomial still fits in the rank
+            do {
+                freeSquare--;
+            } while (binomial(freeSquare, i) > rank);
+
+            rank -= binomial(freeSquare, i);
+            group |= 1 << toSquare(freeSquare, occupied);
+        }
+
+        return group;
+    }
+
+    // the square of the n-th free square, counting from zero
+    private static int toSquare(int freeSquare, int occupied) {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if ((occupied & (1 << square)) == 0 && freeSquare-- == 0) return square;
+        }
+
+        throw new IllegalArgumentException("No free square " + freeSquare);
+    }
+}
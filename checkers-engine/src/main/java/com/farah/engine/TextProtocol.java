@@ -0,0 +1,297 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * TextProtocol drives the engine with one command per line on standard input and answers on standard output, so the
+ * engine can run without a display and be controlled by other programs. Moves are written in square notation, for
+ * example "22-18" or "18x11", and the human always moves first from the start position. The moves of the position
+ * command are remembered, so the search scores a return to any of their positions as a draw. The commands are:
+ * <pre>
+ * position startpos [moves m1 m2 ...]                     set up the start position and play the moves
+ * position &lt;computer&gt; &lt;human&gt; &lt;kings&gt; &lt;side&gt; [moves ...]      set up a position from its three masks in hex
+ * go [ponder] [depth n] [time ms] [nodes n]               search, printing "info" for every depth and "bestmove" at the end,
+ *                                                         followed by "ponder m" when the expected reply is known. When
+ *                                                         pondering, bestmove waits for ponderhit or stop
+ * ponderhit                                               the pondered move was played, the search goes on within its limits
+ * stop                                                    stop the search, it reports the best move found so far
+ * info                                                    print the engine settings
+ * isready, newgame, board, quit
+ * </pre>
+ */
+public class TextProtocol {
+    public static final String NAME = "checkers-engine";
+
+    private static final String POSITION_USAGE = "usage position startpos | position <computer> <human> <kings> <side>, then [moves ...]";
+
+    private final EngineService engineService;
+    private final PrintStream out;
+
+    private BitBoard board = BitBoard.getStartPosition();
+    private PlayerType playerToMove = PlayerType.HUMAN;
+    private PositionHistory history = new PositionHistory();
+
+    // a pondering search can reach its depth or node limit before the opponent has moved, its best move is then held
+    // back until ponderhit or stop. The go commands are counted so the result of an older search is never printed
+    private int searchNumber;
+    private boolean isHoldingBestMove;
+    private String heldBestMove;
+
+    public TextProtocol(EngineService engineService, PrintStream out) {
+        this.engineService = engineService;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var threads = Integer.getInteger("checkers.threads", Runtime.getRuntime().availableProcessors());
+        var protocol = new TextProtocol(new EngineService(threads), System.out);
+
+        protocol.run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    // read and execute commands until quit or the end of the input
+    public void run(BufferedReader in) throws IOException {
+        try {
+            String line;
+
+            while ((line = in.readLine()) != null) {
+                if (!execute(line.trim())) break;
+            }
+        } finally {
+            engineService.shutdown();
+        }
+    }
+
+    // execute one command, returns false when the engine should quit
+    public boolean execute(String line) {
+        if (line.isEmpty()) return true;
+
+        var tokens = line.split("\\s+");
+
+        try {
+            switch (tokens[0]) {
+                case "position":
+                    setPosition(tokens);
+                    break;
+                case "go":
+                    go(tokens);
+                    break;
+                case "ponderhit":
+                    engineService.ponderHit();
+                    releaseBestMove();
+                    break;
+                case "stop":
+                    engineService.stopNow();
+                    releaseBestMove();
+                    break;
+                case "info":
+                    printInfo();
+                    break;
+                case "isready":
+                    out.println("readyok");
+                    break;
+                case "newgame":
+                    engineService.cancel();
+                    startReport(false);
+                    engineService.getSearch().getTranspositionTable().clear();
+                    board = BitBoard.getStartPosition();
+                    playerToMove = PlayerType.HUMAN;
+                    history = new PositionHistory();
+                    break;
+                case "board":
+                    printBoard();
+                    break;
+                case "quit":
+                    return false;
+                default:
+                    out.println("error unknown command " + tokens[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            out.println("error " + e.getMessage() + ": " + line);
+        }
+
+        return true;
+    }
+
+    private void setPosition(String[] tokens) {
+        BitBoard position;
+        PlayerType player;
+        int next;
+
+        if (tokens.length < 2) throw new IllegalArgumentException(POSITION_USAGE);
+
+        if (tokens[1].equals("startpos")) {
+            position = BitBoard.getStartPosition();
+            player = PlayerType.HUMAN;
+            next = 2;
+        } else {
+            if (tokens.length < 5) throw new IllegalArgumentException(POSITION_USAGE);
+
+            var computerPieces = Integer.parseUnsignedInt(tokens[1], 16);
+            var humanPieces = Integer.parseUnsignedInt(tokens[2], 16);
+            var kings = Integer.parseUnsignedInt(tokens[3], 16);
+
+            // the moves and the incremental evaluation trust the masks, so a square may hold one piece at most and only
+            // pieces can be kings
+            if ((computerPieces & humanPieces) != 0) throw new IllegalArgumentException("computer and human pieces overlap");
+            if ((kings & ~(computerPieces | humanPieces)) != 0) throw new IllegalArgumentException("kings on empty squares");
+
+            position = new BitBoard(computerPieces, humanPieces, kings);
+            player = PlayerType.valueOf(tokens[4].toUpperCase(Locale.ROOT));
+            next = 5;
+        }
+
+        var positionHistory = new PositionHistory();
+        positionHistory.push(position.getKey(player), false);
+
+        if (next < tokens.length) {
+            if (!tokens[next].equals("moves")) throw new IllegalArgumentException("expected moves");
+
+            var legalMoves = new MoveList();
+            var undo = new MoveUndo();
+
+            for (int i = next + 1; i < tokens.length; i++) {
+                position.generateMoves(player, legalMoves);
+                var move = MoveEncoding.parse(tokens[i], legalMoves);
+                if (move == MoveEncoding.NO_MOVE) throw new IllegalArgumentException("illegal move " + tokens[i]);
+
+                var isReversible = position.isReversibleMove(move);
+                position.makeMove(move, player, undo);
+                player = BitBoard.getOppPlayer(player);
+                positionHistory.push(position.getKey(player), isReversible);
+            }
+        }
+
+        // the position only changes once the whole command is known to be valid
+        board = position;
+        playerToMove = player;
+        history = positionHistory;
+    }
+
+    private void go(String[] tokens) {
+        var depth = 0;
+        long time = 0;
+        long nodes = 0;
+        var ponder = false;
+
+        for (int i = 1; i < tokens.length; i += 2) {
+            switch (tokens[i]) {
+                case "ponder":
+                    ponder = true;
+                    i--;
+                    break;
+                case "depth":
+                    depth = Integer.parseInt(getValue(tokens, i));
+                    break;
+                case "time":
+                    time = Long.parseLong(getValue(tokens, i));
+                    break;
+                case "nodes":
+                    nodes = Long.parseLong(getValue(tokens, i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown go option " + tokens[i]);
+            }
+        }
+
+        var limits = new SearchLimits(depth, time, nodes);
+        Consumer<SearchResult> listener = result ->
+                out.printf("info depth %d score %d nodes %d time %d nps %d move %s%n", result.getDepth(), result.getScore(),
+                        result.getNodes(), result.getElapsedMillis(), result.getNodesPerSecond(), toNotation(result));
+
+        var number = startReport(ponder);
+
+        (ponder ? engineService.startPonder(board, playerToMove, history, limits, listener) : engineService.startSearch(board, playerToMove, history, limits, listener))
+                .thenAccept(result -> reportBestMove(number, "bestmove " + toNotation(result)
+                        + (result.getPonderMove() != null ? " ponder " + MoveEncoding.toString(MoveEncoding.fromMove(result.getPonderMove())) : "")))
+                .exceptionally(throwable -> {
+                    var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+                    // a search dropped for a newer one, or by newgame or quit, has nothing to report
+                    if (!(cause instanceof CancellationException)) out.println("error " + cause);
+                    return null;
+                });
+    }
+
+    // a new search whose best move is to be reported, any best move held for an earlier one is dropped
+    private synchronized int startReport(boolean ponder) {
+        isHoldingBestMove = ponder;
+        heldBestMove = null;
+
+        return ++searchNumber;
+    }
+
+    // called from the engine thread when a search ends
+    private synchronized void reportBestMove(int number, String line) {
+        if (number != searchNumber) return;
+
+        if (isHoldingBestMove) {
+            heldBestMove = line;
+        } else {
+            out.println(line);
+        }
+    }
+
+    // the pondering is over, a best move found in the meantime is printed now and a later one straight away
+    private synchronized void releaseBestMove() {
+        isHoldingBestMove = false;
+
+        if (heldBestMove != null) {
+            out.println(heldBestMove);
+            heldBestMove = null;
+        }
+    }
+
+    // the value following an option, a missing one is a usage error
+    private static String getValue(String[] tokens, int i) {
+        if (i + 1 >= tokens.length) throw new IllegalArgumentException(tokens[i] + " needs a value");
+        return tokens[i + 1];
+    }
+
+    private static String toNotation(SearchResult result) {
+        return result.getBestMove() == null ? "none" : MoveEncoding.toString(MoveEncoding.fromMove(result.getBestMove()));
+    }
+
+    private void printInfo() {
+        var search = engineService.getSearch();
+
+        out.printf("info name %s threads %d tablebase %d book %d%n", NAME, search.getThreads(),
+                Tablebase.getDefault().getMaxPieces(), OpeningBook.getDefault().size());
+    }
+
+    // the board as text, the computer pieces are c (C for a king) and the human pieces h (H for a king)
+    private void printBoard() {
+        var checkers = board.toCheckers();
+
+        for (var row : checkers) {
+            var line = new StringBuilder();
+
+            for (var checker : row) {
+                if (checker == null) {
+                    line.append('.');
+                } else {
+                    var symbol = checker.getPlayerType().equals(PlayerType.COMPUTER) ? 'c' : 'h';
+                    line.append(checker.hasCrown() ? Character.toUpperCase(symbol) : symbol);
+                }
+            }
+
+            out.println(line);
+        }
+
+        out.println(playerToMove.name().toLowerCase(Locale.ROOT) + " to move");
+    }
+}
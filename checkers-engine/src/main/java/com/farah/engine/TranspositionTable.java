@@ -0,0 +1,125 @@
+package com.farah.engine;
+
+import java.util.Arrays;
+
+/**
+ * TranspositionTable is a fixed size hash table of previously searched positions, indexed by Zobrist key. Each entry
+ * packs the search depth, the bound type of the score, the score itself, the best move found and the age of the search
+ * which stored it into a single long. Entries are grouped into buckets of two: the first slot keeps the deepest result
+ * seen for the bucket (unless it is left over from an older search) and the second slot is always replaced, so shallow
+ * results near the leaves cannot push out expensive results near the root. The key is stored XORed with the data, which
+ * lets a torn entry written by another thread be detected as a simple miss.
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_SIZE_MB = 32;
+
+    // bound types, an exact score lies inside the search window, a lower bound failed high and an upper bound failed low
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // returned by probe when the position is not in the table
+    public static final long MISS = 0L;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+
+    private int age;
+
+    public TranspositionTable(int sizeMb) {
+        // round the number of entries down to a power of two so a bucket can be found by masking the key
+        var entries = Integer.highestOneBit((int) Math.min(1 << 30, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY));
+        entries = Math.max(entries, 2);
+
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.bucketMask = (entries >> 1) - 1;
+    }
+
+    // called at the start of every search so entries from previous turns can be told apart from new ones
+    public void newSearch() {
+        age = (age + 1) & 0x3F;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    // look up a position, returns the packed entry or MISS
+    public long probe(long key) {
+        var index = getIndex(key);
+
+        for (int slot = index; slot < index + 2; slot++) {
+            var entry = data[slot];
+            if (entry != MISS && (keys[slot] ^ entry) == key) return entry;
+        }
+
+        return MISS;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        var index = getIndex(key);
+        var entry = pack(depth, bound, score, move, age);
+
+        // a result for the same position always replaces the old one, keeping the old best move if there is no new one
+        for (int slot = index; slot < index + 2; slot++) {
+            var old = data[slot];
+
+            if (old != MISS && (keys[slot] ^ old) == key) {
+                if (move == 0) entry = pack(depth, bound, score, getMove(old), age);
+                write(slot, key, entry);
+                return;
+            }
+        }
+
+        // the depth preferred slot is only replaced by a deeper (or equal) search, or when it belongs to an older search
+        var preferred = data[index];
+        if (preferred == MISS || getAge(preferred) != age || depth >= getDepth(preferred)) {
+            write(index, key, entry);
+        } else {
+            write(index + 1, key, entry);
+        }
+    }
+
+    private void write(int slot, long key, long entry) {
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    private int getIndex(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 1;
+    }
+
+    // entry layout: move (bits 0-31), score (32-47), depth (48-55), bound (56-57), age (58-63)
+    private static long pack(int depth, int bound, int score, int move, int age) {
+        return (move & 0xFFFFFFFFL)
+                | ((long) (score & 0xFFFF) << 32)
+                | ((long) (depth & 0xFF) << 48)
+                | ((long) bound << 56)
+                | ((long) age << 58);
+    }
+
+    public static int getMove(long entry) {
+        return (int) entry;
+    }
+
+    public static int getScore(long entry) {
+        return (short) (entry >>> 32);
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static int getBound(long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    private static int getAge(long entry) {
+        return (int) (entry >>> 58) & 0x3F;
+    }
+}
@@ -0,0 +1,480 @@
+package com.farah.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.farah.constants.CheckersConstants.NUM_COLS;
+import static com.farah.constants.CheckersConstants.NUM_ROWS;
+import static java.util.Objects.nonNull;
+
+/**
+ * BitBoard is a compact representation of a checkers position. Only the 32 playable squares are stored, one bit each,
+ * in three int masks: the computer pieces, the human pieces and the kings of either side. Square 0 is row 0/col 0 and
+ * squares are numbered left to right, top to bottom (4 per row), so the computer moves "down" towards higher squares.
+ * Moves and captures are generated for every piece at once by shifting and masking whole bitboards, capture chains are
+ * then followed square by square from each capturing piece, and adapters are provided to convert to and from the Checker[][] representation used by the controller and the BoardState class.
+ */
+public class BitBoard {
+    public static final int SQUARES = 32;
+
+    // square masks used by the shift functions to stop pieces wrapping around the board edges
+    public static final int EVEN_ROWS = 0x0F0F0F0F;
+    public static final int ODD_ROWS = 0xF0F0F0F0;
+    public static final int LEFT_EDGE = 0x01010101;
+    public static final int RIGHT_EDGE = 0x80808080;
+
+    // square masks for the rows used by crowning and the heuristic function
+    public static final int TOP_ROW = 0x0000000F;
+    public static final int BOTTOM_ROW = 0xF0000000;
+    public static final int TOP_HALF = 0x0000FFFF;
+    public static final int BOTTOM_THREE_ROWS = 0xFFF00000;
+
+    // the four diagonal directions, ordered so that the opposite of a direction is always direction ^ 3
+    public static final int DOWN_LEFT = 0;
+    public static final int DOWN_RIGHT = 1;
+    public static final int UP_LEFT = 2;
+    public static final int UP_RIGHT = 3;
+
+    // the square one step away from each square in each direction, -1 off the board
+    private static final int[][] NEIGHBOURS = new int[4][SQUARES];
+
+    static {
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            for (int square = 0; square < SQUARES; square++) {
+                var bits = shift(1 << square, direction);
+                NEIGHBOURS[direction][square] = bits == 0 ? -1 : Integer.numberOfTrailingZeros(bits);
+            }
+        }
+    }
+
+    private int computerPieces;
+    private int humanPieces;
+    private int kings;
+
+    // Zobrist key of the pieces, kept up to date incrementally by makeMove
+    private long key;
+
+    // heuristic scores of both sides (see Evaluation), kept up to date incrementally by makeMove like the key
+    private int computerScore;
+    private int humanScore;
+
+    public BitBoard(int computerPieces, int humanPieces, int kings) {
+        this.computerPieces = computerPieces;
+        this.humanPieces = humanPieces;
+        this.kings = kings;
+        this.key = Zobrist.getKey(computerPieces, humanPieces, kings);
+        this.computerScore = Evaluation.getScore(PlayerType.COMPUTER, computerPieces, humanPieces, kings);
+        this.humanScore = Evaluation.getScore(PlayerType.HUMAN, computerPieces, humanPieces, kings);
+    }
+
+    // the opening position, the computer on the first three rows and the human on the last three
+    public static BitBoard getStartPosition() {
+        return new BitBoard(0x00000FFF, 0xFFF00000, 0);
+    }
+
+    // copy constructor, three ints plus the key and scores is all it takes to copy a position
+    public BitBoard(BitBoard other) {
+        set(other);
+    }
+
+    // adapter from the Checker[][] representation used by the controller
+    public static BitBoard fromCheckers(Checker[][] board) {
+        int computerPieces = 0;
+        int humanPieces = 0;
+        int kings = 0;
+
+        for (int row = 0; row < NUM_ROWS; row++) {
+            for (int col = 0; col < NUM_COLS; col++) {
+                if (nonNull(board[row][col]) && isPlayableSquare(row, col)) {
+                    int bit = 1 << toSquare(row, col);
+
+                    if (board[row][col].getPlayerType().equals(PlayerType.COMPUTER)) {
+                        computerPieces |= bit;
+                    } else {
+                        humanPieces |= bit;
+                    }
+
+                    if (board[row][col].hasCrown()) kings |= bit;
+                }
+            }
+        }
+
+        return new BitBoard(computerPieces, humanPieces, kings);
+    }
+
+    // adapter back to the Checker[][] representation used by the controller
+    public Checker[][] toCheckers() {
+        var board = new Checker[NUM_ROWS][NUM_COLS];
+
+        for (int square = 0; square < SQUARES; square++) {
+            int bit = 1 << square;
+
+            if (((computerPieces | humanPieces) & bit) != 0) {
+                var checker = new Checker((computerPieces & bit) != 0 ? PlayerType.COMPUTER : PlayerType.HUMAN);
+                if ((kings & bit) != 0) checker.crown();
+                board[toRow(square)][toCol(square)] = checker;
+            }
+        }
+
+        return board;
+    }
+
+    // square numbering helpers
+    public static boolean isPlayableSquare(int row, int col) {
+        return (row + col) % 2 == 0;
+    }
+
+    public static int toSquare(int row, int col) {
+        return (row << 2) | (col >> 1);
+    }
+
+    public static int toRow(int square) {
+        return square >> 2;
+    }
+
+    public static int toCol(int square) {
+        return ((square & 3) << 1) | ((square >> 2) & 1);
+    }
+
+    // moves every piece in the given bitboard one step in the given direction, dropping pieces that would leave the board
+    public static int shift(int bits, int direction) {
+        switch (direction) {
+            case DOWN_LEFT:
+                return ((bits & EVEN_ROWS & ~LEFT_EDGE) << 3) | ((bits & ODD_ROWS) << 4);
+            case DOWN_RIGHT:
+                return ((bits & EVEN_ROWS) << 4) | ((bits & ODD_ROWS & ~RIGHT_EDGE) << 5);
+            case UP_LEFT:
+                return ((bits & EVEN_ROWS & ~LEFT_EDGE) >>> 5) | ((bits & ODD_ROWS) >>> 4);
+            default:
+                return ((bits & EVEN_ROWS) >>> 4) | ((bits & ODD_ROWS & ~RIGHT_EDGE) >>> 3);
+        }
+    }
+
+    public static int getNeighbour(int square, int direction) {
+        return NEIGHBOURS[direction][square];
+    }
+
+    public static int opposite(int direction) {
+        return direction ^ 3;
+    }
+
+    // men can only move towards the opponents base, kings can move in all four directions
+    public static boolean isForward(int direction, PlayerType playerType) {
+        return playerType.equals(PlayerType.COMPUTER) ? direction <= DOWN_RIGHT : direction >= UP_LEFT;
+    }
+
+    // the row a man has to reach to be crowned
+    public static int getCrownRow(PlayerType playerType) {
+        return playerType.equals(PlayerType.COMPUTER) ? BOTTOM_ROW : TOP_ROW;
+    }
+
+    public static PlayerType getOppPlayer(PlayerType playerType) {
+        return playerType.equals(PlayerType.HUMAN) ? PlayerType.COMPUTER : PlayerType.HUMAN;
+    }
+
+    public int getComputerPieces() {
+        return computerPieces;
+    }
+
+    public int getHumanPieces() {
+        return humanPieces;
+    }
+
+    public int getKings() {
+        return kings;
+    }
+
+    // hash of the pieces only
+    public long getKey() {
+        return key;
+    }
+
+    // hash of the position including the player to move, used to index the transposition table
+    public long getKey(PlayerType playerToMove) {
+        return key ^ Zobrist.getSideKey(playerToMove);
+    }
+
+    public int getPieces(PlayerType playerType) {
+        return playerType.equals(PlayerType.COMPUTER) ? computerPieces : humanPieces;
+    }
+
+    public int getEmptySquares() {
+        return ~(computerPieces | humanPieces);
+    }
+
+    // the pieces of a player which are allowed to travel in the given direction
+    private int getMovers(int direction, PlayerType playerType) {
+        var pieces = getPieces(playerType);
+        return isForward(direction, playerType) ? pieces : pieces & kings;
+    }
+
+    // landing squares of all captures in the given direction
+    private int getJumpTargets(int direction, PlayerType playerType) {
+        var opponents = getPieces(getOppPlayer(playerType));
+        return shift(shift(getMovers(direction, playerType), direction) & opponents, direction) & getEmptySquares();
+    }
+
+    // successor function for bitboards. As jumping is mandatory, quiet moves are only generated when no jumps exist.
+    // Moves are packed ints (see MoveEncoding) written into a reusable list, so generation does not allocate
+    public void generateMoves(PlayerType playerType, MoveList moves) {
+        generateCaptures(playerType, moves);
+
+        if (moves.isEmpty()) generateQuietMoves(playerType, moves);
+    }
+
+    // the quiet moves of a player, only legal when the player has no capture
+    public void generateQuietMoves(PlayerType playerType, MoveList moves) {
+        moves.clear();
+
+        var crownRow = getCrownRow(playerType);
+
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            var targets = shift(getMovers(direction, playerType), direction) & getEmptySquares();
+
+            while (targets != 0) {
+                var to = Integer.numberOfTrailingZeros(targets);
+                var from = getNeighbour(to, opposite(direction));
+                moves.add(MoveEncoding.quietMove(from, direction, (crownRow & (1 << to)) != 0));
+                targets &= targets - 1;
+            }
+        }
+    }
+
+    // the captures of a player only, an empty list means the position is quiet for that player. Every capture is a full
+    // chain: the pieces which can capture are found with the jump targets, then the chains of each of them are followed
+    // to the end, so a move is only generated once the piece has nothing left to jump
+    public void generateCaptures(PlayerType playerType, MoveList moves) {
+        moves.clear();
+
+        var capturers = 0;
+
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            capturers |= shift(shift(getJumpTargets(direction, playerType), opposite(direction)), opposite(direction));
+        }
+
+        while (capturers != 0) {
+            var from = Integer.numberOfTrailingZeros(capturers);
+            addCaptureChains(from, from, from, 0, playerType, moves);
+            capturers &= capturers - 1;
+        }
+    }
+
+    // depth first search over the jumps of the piece which started on the from square and has got to the given square.
+    // The board is left as it is: the start square counts as empty and the pieces already jumped are kept in a mask, as
+    // they stay on the board until the move is over and so can neither be jumped twice nor be landed on
+    private void addCaptureChains(int from, int square, int chain, int captured, PlayerType playerType, MoveList moves) {
+        var isKing = (kings & (1 << from)) != 0;
+        var opponents = getPieces(getOppPlayer(playerType)) & ~captured;
+        var empty = getEmptySquares() | (1 << from);
+        var isExtended = false;
+
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            if (!isKing && !isForward(direction, playerType)) continue;
+
+            var via = getNeighbour(square, direction);
+            if (via < 0 || (opponents & (1 << via)) == 0) continue;
+
+            var to = getNeighbour(via, direction);
+            if (to < 0 || (empty & (1 << to)) == 0) continue;
+
+            isExtended = true;
+            var extended = MoveEncoding.addJump(chain, direction);
+
+            // landing on the crown row or capturing a king (regicide) crowns a man, which ends the move
+            if (!isKing && ((getCrownRow(playerType) & (1 << to)) | (kings & (1 << via))) != 0) {
+                moves.add(MoveEncoding.setCrownMove(extended));
+            } else if (MoveEncoding.getJumpCount(extended) == MoveEncoding.MAX_JUMPS) {
+                moves.add(extended);
+            } else {
+                addCaptureChains(from, to, extended, captured | (1 << via), playerType, moves);
+            }
+        }
+
+        if (!isExtended) moves.add(chain);
+    }
+
+    // UI facing successor function, the packed moves are converted to Move objects
+    public List<Move> getAllPossibleMoves(PlayerType playerType) {
+        var moveList = new MoveList();
+        generateMoves(playerType, moveList);
+
+        List<Move> possibleMoves = new ArrayList<>(moveList.size());
+
+        for (int i = 0; i < moveList.size(); i++) {
+            possibleMoves.add(MoveEncoding.toMove(moveList.get(i)));
+        }
+
+        return possibleMoves;
+    }
+
+    // cheap check for whether a player has any legal move, without building the move list
+    public boolean hasMoves(PlayerType playerType) {
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            if ((shift(getMovers(direction, playerType), direction) & getEmptySquares()) != 0) return true;
+            if (getJumpTargets(direction, playerType) != 0) return true;
+        }
+
+        return false;
+    }
+
+    // whether a packed move, for example one remembered from another position, is a quiet move the player can make
+    // here. Like generateQuietMoves it does not check for captures, which would make every quiet move illegal
+    public boolean isQuietMove(int move, PlayerType playerType) {
+        if (move == MoveEncoding.NO_MOVE || MoveEncoding.isJumpMove(move)) return false;
+
+        var direction = MoveEncoding.getDirection(move, 0);
+        var from = 1 << MoveEncoding.getFrom(move);
+        var to = shift(from, direction);
+        if ((getMovers(direction, playerType) & from) == 0 || (to & getEmptySquares()) == 0) return false;
+
+        return move == MoveEncoding.quietMove(MoveEncoding.getFrom(move), direction, (getCrownRow(playerType) & to) != 0);
+    }
+
+    // whether a move about to be made can be undone by later moves: only a king moving without capturing can go back,
+    // a man only moves forward and a capture removes pieces for good. Positions before any other move cannot come again
+    public boolean isReversibleMove(int move) {
+        return !MoveEncoding.isJumpMove(move) && (kings & (1 << MoveEncoding.getFrom(move))) != 0;
+    }
+
+    // cheap check for whether a player has a capture, and so is not allowed any quiet move
+    public boolean hasCaptures(PlayerType playerType) {
+        for (int direction = DOWN_LEFT; direction <= UP_RIGHT; direction++) {
+            if (getJumpTargets(direction, playerType) != 0) return true;
+        }
+
+        return false;
+    }
+
+    // The game is over if either the current player has no pieces or cannot move
+    public boolean isGameOver(PlayerType currentPlayer) {
+        return getPieces(currentPlayer) == 0 || !hasMoves(currentPlayer);
+    }
+
+    // update the bitboard with a move, mirrors BoardUtils.move including crowning by regicide
+    public void move(Move move, PlayerType playerType) {
+        makeMove(MoveEncoding.fromMove(move), playerType, new MoveUndo());
+    }
+
+    // apply a packed move in place and fill in the undo record needed to take it back with unmakeMove
+    public void makeMove(int move, PlayerType playerType, MoveUndo undo) {
+        var fromSquare = MoveEncoding.getFrom(move);
+        var toSquare = MoveEncoding.getTo(move);
+        var from = 1 << fromSquare;
+        var to = 1 << toSquare;
+        var isKing = (kings & from) != 0;
+
+        undo.key = key;
+        undo.computerScore = computerScore;
+        undo.humanScore = humanScore;
+        undo.captured = MoveEncoding.getCaptured(move);
+        undo.capturedKings = undo.captured & kings;
+
+        // every piece taken by a capture chain is removed, each capture is worth the
+        // piece count weight to the capturer
+        for (int captured = undo.captured; captured != 0; captured &= captured - 1) {
+            var capturedSquare = Integer.numberOfTrailingZeros(captured);
+            var capturedKind = Zobrist.getKind(getOppPlayer(playerType), (undo.capturedKings & (1 << capturedSquare)) != 0);
+            key ^= Zobrist.getPieceKey(capturedKind, capturedSquare);
+            addScore(getOppPlayer(playerType), -Evaluation.getPieceScore(capturedKind, capturedSquare));
+            addScore(playerType, Evaluation.getWeight(Evaluation.PIECE_COUNT));
+        }
+
+        computerPieces &= ~undo.captured;
+        humanPieces &= ~undo.captured;
+        kings &= ~undo.captured;
+
+        // crowned by ascension or regicide, kings cannot be crowned twice
+        undo.crowned = !isKing && (MoveEncoding.isCrownMove(move) || undo.capturedKings != 0 || (getCrownRow(playerType) & to) != 0);
+
+        if (playerType.equals(PlayerType.COMPUTER)) {
+            computerPieces = (computerPieces & ~from) | to;
+        } else {
+            humanPieces = (humanPieces & ~from) | to;
+        }
+
+        if (isKing || undo.crowned) kings = (kings & ~from) | to;
+
+        var fromKind = Zobrist.getKind(playerType, isKing);
+        var toKind = Zobrist.getKind(playerType, isKing || undo.crowned);
+
+        key ^= Zobrist.getPieceKey(fromKind, fromSquare) ^ Zobrist.getPieceKey(toKind, toSquare);
+        addScore(playerType, Evaluation.getPieceScore(toKind, toSquare) - Evaluation.getPieceScore(fromKind, fromSquare));
+    }
+
+    private void addScore(PlayerType playerType, int delta) {
+        if (playerType.equals(PlayerType.COMPUTER)) {
+            computerScore += delta;
+        } else {
+            humanScore += delta;
+        }
+    }
+
+    // take back a move made with makeMove, restoring the captured pieces and removing a crown gained by the move
+    public void unmakeMove(int move, PlayerType playerType, MoveUndo undo) {
+        var from = 1 << MoveEncoding.getFrom(move);
+        var to = 1 << MoveEncoding.getTo(move);
+        var wasKing = (kings & to) != 0 && !undo.crowned;
+
+        if (playerType.equals(PlayerType.COMPUTER)) {
+            computerPieces = (computerPieces & ~to) | from;
+        } else {
+            humanPieces = (humanPieces & ~to) | from;
+        }
+
+        kings &= ~to;
+        if (wasKing) kings |= from;
+
+        if (playerType.equals(PlayerType.COMPUTER)) {
+            humanPieces |= undo.captured;
+        } else {
+            computerPieces |= undo.captured;
+        }
+
+        kings |= undo.capturedKings;
+
+        key = undo.key;
+        computerScore = undo.computerScore;
+        humanScore = undo.humanScore;
+    }
+
+    // overwrite this bitboard with another position, used to reset a reusable search board
+    public void set(BitBoard other) {
+        computerPieces = other.computerPieces;
+        humanPieces = other.humanPieces;
+        kings = other.kings;
+        key = other.key;
+        computerScore = other.computerScore;
+        humanScore = other.humanScore;
+    }
+
+    // heuristic function matching BoardUtils.getBoardStateScore, the scores are maintained by makeMove so this is a read
+    public int getBoardStateScore(PlayerType playerType) {
+        return playerType.equals(PlayerType.COMPUTER) ? computerScore : humanScore;
+    }
+
+    // the heuristic score of a player less that of the opponent, the evaluation used by the search, which is the same for
+    // both sides of an even position and so matches the draw score
+    public int getEvaluation(PlayerType playerType) {
+        return playerType.equals(PlayerType.COMPUTER) ? computerScore - humanScore : humanScore - computerScore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof BitBoard)) {
+            return false;
+        }
+
+        BitBoard b = (BitBoard) o;
+
+        return computerPieces == b.computerPieces && humanPieces == b.humanPieces && kings == b.kings;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * computerPieces + humanPieces) + kings;
+    }
+}
@@ -1,7 +1,5 @@
 package com.farah.model;
 
-import org.apache.commons.lang3.SerializationUtils;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,18 +40,19 @@ public class BoardState {
     }
 
     // main helper function used to derive all the legal possible child board states given the current board state
+    // the board is converted to a bitboard once, and each child is derived from a cheap bitboard copy instead of a deep clone
     public List<BoardState> getChildren(PlayerType playerType) {
-        final Checker[][] currentBoard = SerializationUtils.clone(checkersBoard);
+        final BitBoard currentBoard = BitBoard.fromCheckers(checkersBoard);
         List<BoardState> possibleStates = new ArrayList<>();
 
         // get list of possible moves via successor function
-        List<Move> possibleMoves = new ArrayList<>(BoardUtils.getAllPossibleMoves(currentBoard, playerType));
+        List<Move> possibleMoves = currentBoard.getAllPossibleMoves(playerType);
 
         // for each of those moves, apply it to a copy of the current board state and add to child board state list
         for (Move move : possibleMoves) {
-            var childBoard = SerializationUtils.clone(currentBoard);
-            BoardUtils.move(childBoard, move, playerType);
-            var childState = new BoardState(childBoard);
+            var childBoard = new BitBoard(currentBoard);
+            childBoard.move(move, playerType);
+            var childState = new BoardState(childBoard.toCheckers());
             childState.setMove(move);
             possibleStates.add(childState);
         }
@@ -61,14 +60,4 @@ public class BoardState {
         return possibleStates;
     }
 
-    // failed attempt at recursive jumping for moves
-//    private List<BoardState> recurseJumps(BoardState originalJumpMoveState, PlayerType playerType) {
-//        final Checker[][] board = SerializationUtils.clone(originalJumpMoveState.getCheckersBoard());
-//
-//        List<Move> possibleMoves = new ArrayList<>(BoardUtils.getAllPossibleMoves(board, playerType));
-//
-//        var areJumpMoves = possibleMoves.get(0).isJumpMove();
-//
-//        if (areJumpMoves)
-//    }
 }
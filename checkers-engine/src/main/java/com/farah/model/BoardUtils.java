@@ -0,0 +1,181 @@
+package com.farah.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.farah.constants.CheckersConstants.NUM_COLS;
+import static com.farah.constants.CheckersConstants.NUM_ROWS;
+import static java.util.Objects.*;
+
+/**
+ * BoardUtils is a utility class to aid in the execution of game logic such as move generation and validation. The search
+ * itself lives in com.farah.engine.Search, which works on a BitBoard.
+ */
+public class BoardUtils {
+    // update board with a move
+    // only valid moves use this function
+    public static void move(Checker[][] board, Move move, PlayerType playerType){
+        // check if checker should be crowned by regicide, this has to be done before the captured king is removed
+        var isRegicide = isRegicideMove(board, move);
+
+        // get rid of checkers in legal jump moves, a capture chain takes the checker between each of its jumps
+        for (var jump : move.getJumps()) {
+            board[jump.getViaRow()][jump.getViaCol()] = null;
+        }
+
+        // a king's capture chain can end on the square it started from, so the checker is lifted before it is placed
+        var checker = board[move.getOldRow()][move.getOldCol()];
+        board[move.getOldRow()][move.getOldCol()] = null;
+        board[move.getNewRow()][move.getNewCol()] = checker;
+
+        // check if checker should be crowned by ascension or if set to crown by regicide check
+        if (shouldCrown(move.getNewRow(), playerType) || move.isCrownMove() || isRegicide) board[move.getNewRow()][move.getNewCol()].crown();
+    }
+
+    // if checker has reached the opposite last row, crown it or if it has jumped a piece type which is already a king
+    public static boolean shouldCrown(int newRow, PlayerType playerType){
+        if (newRow == 0 && playerType.equals(PlayerType.HUMAN)) return true;
+
+        return newRow == 7 && playerType.equals(PlayerType.COMPUTER);
+    }
+
+    public static boolean isJumpMove(int oldRow, int oldCol, int newRow, int newCol){
+        return Math.abs((oldRow - newRow)) == 2 && Math.abs((oldCol - newCol)) == 2;
+    }
+
+    // successor function to generate a list of moves given a current checker board. Precedence is given to jump moves when returning the list of possible moves as they are required
+    // the board is converted to a bitboard so that all pieces are moved at once by shifting and masking, instead of checking each of the 64 cells in turn
+    public static List<Move> getAllPossibleMoves(Checker[][] checkersBoard, PlayerType playerType){
+        return BitBoard.fromCheckers(checkersBoard).getAllPossibleMoves(playerType);
+    }
+
+    public static boolean isValidMove(Checker[][] board, int oldRow, int oldCol, int newRow, int newCol, PlayerType playerType){
+        // needs to be within board bounds
+        if (newRow < 0 || newRow > 7) return false;
+
+        if (newCol < 0 || newCol > 7) return false;
+
+        // the original position should have a checker
+        if (isNull(board[oldRow][oldCol])) return false;
+
+        // the new position should not have a checker
+        if (nonNull(board[newRow][newCol])) return false;
+
+        // the original position should match the current player type
+        if (!board[oldRow][oldCol].getPlayerType().equals(playerType)) return false;
+
+        // if previous checks pass and the new position is empty then it is a valid move
+        return isNull(board[newRow][newCol]);
+    }
+
+    public static boolean isValidJump(Checker[][] board, int oldRow, int oldCol, int viaRow, int viaCol, int newRow, int newCol, PlayerType playerType){
+        // needs to be within board bounds
+        if (newRow < 0 || newRow > 7) return false;
+
+        if (newCol < 0 || newCol > 7) return false;
+
+        // capturing moves need to capture a piece in between
+        if (isNull(board[viaRow][viaCol])) return false;
+
+        // the captured piece has to be of the opposing type
+        if (board[viaRow][viaCol].getPlayerType().equals(playerType)) return false;
+
+        // the new position should not have a checker
+        if (nonNull(board[newRow][newCol])) return false;
+
+        // the original position should have a checker
+        if (isNull(board[oldRow][oldCol])) return false;
+
+        // lastly the original position should match the current player type
+        return board[oldRow][oldCol].getPlayerType().equals(playerType);
+    }
+
+    // heuristic function to calculate score need for minimax algorithm
+    // This function focuses on material, safe pieces and advanced pieces, weighted by the Evaluation weights
+    public static int getBoardStateScore(Checker[][] board, PlayerType playerType) {
+        int score = 0;
+        int playerPieces = 0;
+        int oppPieces = 0;
+
+        for (int row = 0; row < NUM_ROWS; row++){
+            for (int col = 0; col < NUM_COLS; col++){
+                if (Objects.nonNull(board[row][col])){
+                    if (board[row][col].getPlayerType().equals(playerType)){
+                        playerPieces++;
+                        //prefer kings
+                        if (board[row][col].hasCrown()) score += Evaluation.getWeight(Evaluation.KING);
+
+                        //a pawn is half a king in terms of direction ability
+                        if (!board[row][col].hasCrown()) score += Evaluation.getWeight(Evaluation.MAN);
+
+                        // defensive style is preferred
+                        if (isAtBase(playerType, row)) score += Evaluation.getWeight(Evaluation.BACK_ROW);
+
+                        // pieces on the side cannot be taken
+                        if (col == 0 || col == 7) score += Evaluation.getWeight(Evaluation.EDGE);
+
+                        // if near opponents base it has a good chance to become king
+                        if (isNearOppBase(playerType, row)) score += Evaluation.getWeight(Evaluation.ADVANCED);
+                    } else {
+                        oppPieces++;
+                    }
+                }
+            }
+        }
+
+        return score + (playerPieces - oppPieces) * Evaluation.getWeight(Evaluation.PIECE_COUNT);
+    }
+
+    // check if player piece is at first row/base row
+    private static boolean isAtBase(PlayerType playerType, int row){
+        return playerType.equals(PlayerType.COMPUTER) ? row == 0 : row == 7;
+    }
+
+    // check if player piece is near the opponents base/close to being crowned
+    private static boolean isNearOppBase(PlayerType playerType, int row){
+        return playerType.equals(PlayerType.COMPUTER) ? row >= 5 : row <= 3;
+    }
+
+    // The game is over if either the current player has no pieces or cannot move
+    public static boolean isGameOver(Checker[][] board, PlayerType currentPlayer){
+        return BitBoard.fromCheckers(board).isGameOver(currentPlayer);
+    }
+
+    public static String getIllegalMoveReason(Checker[][] board, Move move){
+        // non playable position
+        if ((move.getNewRow() + move.getNewCol()) % 2 != 0) return "Please place piece on playable tile!";
+
+        // if target contains a piece
+        if (nonNull(board[move.getNewRow()][move.getNewCol()])) return "Please place piece on tile without a piece!";
+
+        // only kings can move backwards
+        if (Math.abs(move.getRowDiff()) > 2 || Math.abs(move.getColDiff()) > 2) return "You cannot move that far!";
+
+        // only diagonal moves are allowed
+        if (move.getNewRow() == move.getOldRow() || move.getNewCol() == move.getOldCol()) return "You can only move diagonally!";
+
+        // attempted jumps should capture an opposing piece
+        if((Math.abs(move.getRowDiff()) == 2 || Math.abs(move.getColDiff()) == 2) && (isNull(board[move.getViaRow()][move.getViaCol()]) || board[move.getViaRow()][move.getViaCol()].getPlayerType().equals(PlayerType.HUMAN)))  return "Jump moves must have an opposing piece to take in between!";
+
+        // only kings can move backwards
+        if (move.getNewRow() > move.getOldRow()) return "Only Kings can move backwards!";
+
+        return "INVALID MOVE - WHAT ARE YOU DOING!?";
+    }
+
+    // helper to confirm if move is a regicide move where a king is captured and the capturing piece becomes a king
+    public static boolean isRegicideMove(Checker[][] board, Move move){
+        for (var jump : move.getJumps()) {
+            if (nonNull(board[jump.getViaRow()][jump.getViaCol()])){
+                // different player types and captured piece is a king, then the piece is promoted to king
+                if (!board[move.getOldRow()][move.getOldCol()].getPlayerType().equals(board[jump.getViaRow()][jump.getViaCol()].getPlayerType())
+                        && board[jump.getViaRow()][jump.getViaCol()].hasCrown()){
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
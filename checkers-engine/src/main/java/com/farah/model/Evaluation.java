@@ -0,0 +1,195 @@
+package com.farah.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Evaluation class holds the per square tables behind the heuristic function of BoardUtils.getBoardStateScore. Every
+ * term of that function (material, back row, edge and advanced piece bonuses, and the difference in piece count) is a
+ * sum over single pieces, so the score of a side is the sum of one table value for each of its own pieces minus the
+ * piece count weight for each opponent piece. This lets BitBoard keep the scores of both sides up to date as pieces are
+ * added and removed, in the same way as the Zobrist key, and reading the evaluation at a leaf costs nothing.
+ * The weight of each term is a parameter: the heuristic is the dot product of the weights with the term counts of
+ * getFeatures. The weights are read at startup from the properties file named by the checkers.weights system property
+ * (as written by the tuner), and are the original hand picked values without one. A file must give positive man and
+ * king weights, and weights which keep every score within MAX_SCORE.
+ */
+public class Evaluation {
+    public static final String FILE_PROPERTY = "checkers.weights";
+
+    // the terms of the heuristic, indexes into the weights and features
+    public static final int MAN = 0;
+    public static final int KING = 1;
+    public static final int BACK_ROW = 2;
+    public static final int EDGE = 3;
+    public static final int ADVANCED = 4;
+    public static final int PIECE_COUNT = 5;
+    public static final int TERMS = 6;
+
+    // the largest score the evaluation may reach, well away from the win and loss scores of the search
+    public static final int MAX_SCORE = 450;
+
+    // most pieces that can be on the board, twelve a side
+    private static final int MAX_PIECES = 24;
+
+    private static final String[] TERM_NAMES = {"man", "king", "back_row", "edge", "advanced", "piece_count"};
+    private static final int[] DEFAULT_WEIGHTS = {3, 5, 1, 1, 1, 1};
+
+    private static final int[] WEIGHTS = loadWeights();
+
+    // score of a piece of each kind (see Zobrist) on each square towards its own side's score
+    private static final int[][] PIECE_SCORES = new int[4][BitBoard.SQUARES];
+
+    static {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            PIECE_SCORES[Zobrist.COMPUTER_MAN][square] = getPieceScore(PlayerType.COMPUTER, false, square);
+            PIECE_SCORES[Zobrist.COMPUTER_KING][square] = getPieceScore(PlayerType.COMPUTER, true, square);
+            PIECE_SCORES[Zobrist.HUMAN_MAN][square] = getPieceScore(PlayerType.HUMAN, false, square);
+            PIECE_SCORES[Zobrist.HUMAN_KING][square] = getPieceScore(PlayerType.HUMAN, true, square);
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    private static int[] loadWeights() {
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null) return DEFAULT_WEIGHTS.clone();
+
+        try {
+            return readWeights(Paths.get(file));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Evaluation weights " + file + " could not be read, using the default weights: " + e.getMessage());
+            return DEFAULT_WEIGHTS.clone();
+        }
+    }
+
+    // weights file, one name=value line per term, the man and king weights are required and the other terms left out
+    // keep their default weight
+    public static int[] readWeights(Path file) throws IOException {
+        var properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        var weights = DEFAULT_WEIGHTS.clone();
+
+        for (int term = 0; term < TERMS; term++) {
+            var value = properties.getProperty(TERM_NAMES[term]);
+
+            if (value != null) {
+                weights[term] = Integer.parseInt(value.trim());
+            } else if (term == MAN || term == KING) {
+                throw new IllegalArgumentException("The " + TERM_NAMES[term] + " weight is missing");
+            }
+        }
+
+        validateWeights(weights);
+        return weights;
+    }
+
+    public static void writeWeights(Path file, int[] weights, String comment) throws IOException {
+        validateWeights(weights);
+        var properties = new Properties();
+
+        for (int term = 0; term < TERMS; term++) {
+            properties.setProperty(TERM_NAMES[term], Integer.toString(weights[term]));
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    // the material weights have to be positive, and no position may score beyond MAX_SCORE
+    public static void validateWeights(int[] weights) {
+        for (int term : new int[]{MAN, KING}) {
+            if (weights[term] <= 0) throw new IllegalArgumentException("The " + TERM_NAMES[term] + " weight must be positive, not " + weights[term]);
+        }
+
+        var realWeights = new double[TERMS];
+        for (int term = 0; term < TERMS; term++) realWeights[term] = weights[term];
+
+        var maxScore = getMaxScore(realWeights);
+        if (maxScore > MAX_SCORE) throw new IllegalArgumentException("The weights allow scores up to " + (int) maxScore + ", more than " + MAX_SCORE);
+    }
+
+    // a bound on the score of any position: every piece on the board adds or takes off at most its material, its bonus
+    // terms and the piece count weight twice, once for its own side and once against the other
+    public static double getMaxScore(double[] weights) {
+        var pieceScore = Math.max(Math.abs(weights[MAN]), Math.abs(weights[KING])) + Math.abs(weights[BACK_ROW])
+                + Math.abs(weights[EDGE]) + Math.abs(weights[ADVANCED]) + 2 * Math.abs(weights[PIECE_COUNT]);
+
+        return MAX_PIECES * pieceScore;
+    }
+
+    public static String getTermName(int term) {
+        return TERM_NAMES[term];
+    }
+
+    public static int getWeight(int term) {
+        return WEIGHTS[term];
+    }
+
+    public static int[] getWeights() {
+        return WEIGHTS.clone();
+    }
+
+    public static int[] getDefaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    // the terms of BoardUtils.getBoardStateScore for one piece, plus its share of the piece count difference
+    private static int getPieceScore(PlayerType playerType, boolean isKing, int square) {
+        var bit = 1 << square;
+        var isComputer = playerType.equals(PlayerType.COMPUTER);
+
+        var score = isKing ? WEIGHTS[KING] : WEIGHTS[MAN];
+        if ((bit & (isComputer ? BitBoard.TOP_ROW : BitBoard.BOTTOM_ROW)) != 0) score += WEIGHTS[BACK_ROW];
+        if ((bit & (BitBoard.LEFT_EDGE | BitBoard.RIGHT_EDGE)) != 0) score += WEIGHTS[EDGE];
+        if ((bit & (isComputer ? BitBoard.BOTTOM_THREE_ROWS : BitBoard.TOP_HALF)) != 0) score += WEIGHTS[ADVANCED];
+
+        return score + WEIGHTS[PIECE_COUNT];
+    }
+
+    public static int getPieceScore(int kind, int square) {
+        return PIECE_SCORES[kind][square];
+    }
+
+    // full score calculation for one side of a position, the incremental updates in BitBoard must always agree with it
+    public static int getScore(PlayerType playerType, int computerPieces, int humanPieces, int kings) {
+        var isComputer = playerType.equals(PlayerType.COMPUTER);
+        var playerPieces = isComputer ? computerPieces : humanPieces;
+        var oppPieces = isComputer ? humanPieces : computerPieces;
+        var score = 0;
+
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            int bit = 1 << square;
+
+            if ((playerPieces & bit) != 0) score += PIECE_SCORES[Zobrist.getKind(playerType, (kings & bit) != 0)][square];
+        }
+
+        return score - Integer.bitCount(oppPieces) * WEIGHTS[PIECE_COUNT];
+    }
+
+    // how often each term counts towards the score of one side, so that the score is the sum of weight times feature
+    // over the terms. Used by the tuner, which fits the weights to game results
+    public static void getFeatures(PlayerType playerType, int computerPieces, int humanPieces, int kings, int[] features) {
+        var isComputer = playerType.equals(PlayerType.COMPUTER);
+        var playerPieces = isComputer ? computerPieces : humanPieces;
+        var oppPieces = isComputer ? humanPieces : computerPieces;
+
+        features[MAN] = Integer.bitCount(playerPieces & ~kings);
+        features[KING] = Integer.bitCount(playerPieces & kings);
+        features[BACK_ROW] = Integer.bitCount(playerPieces & (isComputer ? BitBoard.TOP_ROW : BitBoard.BOTTOM_ROW));
+        features[EDGE] = Integer.bitCount(playerPieces & (BitBoard.LEFT_EDGE | BitBoard.RIGHT_EDGE));
+        features[ADVANCED] = Integer.bitCount(playerPieces & (isComputer ? BitBoard.BOTTOM_THREE_ROWS : BitBoard.TOP_HALF));
+        features[PIECE_COUNT] = Integer.bitCount(playerPieces) - Integer.bitCount(oppPieces);
+    }
+}
@@ -1,9 +1,13 @@
 package com.farah.model;
 
+import java.util.List;
+
 /**
  * Move class which represents a potential move that can be taken from a source position to a target position
  * This class also automatically assigns the middle row/cols for captured pieces if the move is a jumping move
- * Finally a setter/getter is provided to indicate whether the move results in a crown, happens via ascension or regicide
+ * Finally a getter is provided to indicate whether the move results in a crown, happens via ascension or regicide
+ * A capture chain is a single move from the start of its first jump to the end of its last, made of its single jumps
+ * Move is immutable and is the UI facing view of a move, the search works on packed int moves (see MoveEncoding)
  */
 public class Move {
     private final int oldRow;
@@ -11,11 +15,13 @@ public class Move {
     private final int newRow;
     private final int newCol;
     private final boolean isJumpMove;
+    private final boolean isCrownMove;
 
-    private int viaRow;
-    private int viaCol;
+    private final int viaRow;
+    private final int viaCol;
 
-    private boolean isCrownMove;
+    // the single jumps of a capture chain, empty for every other move
+    private final List<Move> chain;
 
     public Move(int oldRow, int oldCol, int newRow, int newCol, boolean isJumpMove, boolean isCrownMove) {
         this.oldRow = oldRow;
@@ -29,10 +35,31 @@ public class Move {
         if (isJumpMove) {
             this.viaRow = (oldRow + newRow) / 2;
             this.viaCol = (oldCol + newCol) / 2;
+        } else {
+            this.viaRow = 0;
+            this.viaCol = 0;
         }
+
+        this.chain = List.of();
+    }
+
+    // a capture chain made of two or more single jumps, the via row/col are those of the first jump
+    public Move(List<Move> jumps, boolean isCrownMove) {
+        var first = jumps.get(0);
+        var last = jumps.get(jumps.size() - 1);
+
+        this.oldRow = first.getOldRow();
+        this.oldCol = first.getOldCol();
+        this.newRow = last.getNewRow();
+        this.newCol = last.getNewCol();
+        this.isJumpMove = true;
+        this.isCrownMove = isCrownMove;
+        this.viaRow = first.getViaRow();
+        this.viaCol = first.getViaCol();
+        this.chain = List.copyOf(jumps);
     }
 
-    // getters and setters
+    // getters
 
     public int getOldRow() {
         return oldRow;
@@ -58,6 +85,13 @@ public class Move {
         return viaCol;
     }
 
+    // the single jumps the move is made of, one for a single jump and none for a quiet move
+    public List<Move> getJumps() {
+        if (!chain.isEmpty()) return chain;
+
+        return isJumpMove ? List.of(this) : List.of();
+    }
+
     public boolean isJumpMove() {
         return isJumpMove;
     }
@@ -74,8 +108,6 @@ public class Move {
         return oldCol - newCol;
     }
 
-    public void setCrownMove(){ isCrownMove = true;}
-
     // The equals methods has been overridden to help check for move equality based on the move variables rather than reference location (default), when the list of possible moves is returned
     @Override
     public boolean equals(Object o){
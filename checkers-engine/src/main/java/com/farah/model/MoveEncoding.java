@@ -0,0 +1,165 @@
+package com.farah.model;
+
+import java.util.ArrayList;
+
+/**
+ * MoveEncoding packs a move into a single int so the search can generate, store and compare moves without allocating
+ * Move objects. A move is stored as its from square and the directions it travels in, so a whole capture chain fits in
+ * one int: the from square (bits 0-4), a crown flag (bit 5) which is set for moves that reach the crown row or capture a
+ * king, the number of jumps (bits 6-9) and then two bits per step for the direction of each step (from bit 10). A quiet
+ * move has no jumps and one step, a capture chain has one step per jump, which leaves room for chains of up to
+ * MAX_JUMPS captures. The landing and captured squares are found by walking the steps from the from square.
+ * Zero is never a valid move (square 0 cannot move down left) and is used to mean "no move". The Move class is kept as
+ * the view of a move used by the UI.
+ */
+public class MoveEncoding {
+    public static final int NO_MOVE = 0;
+    public static final int MAX_JUMPS = 11;
+
+    private static final int SQUARE_MASK = 0x1F;
+    private static final int CROWN_FLAG = 1 << 5;
+    private static final int JUMPS_SHIFT = 6;
+    private static final int JUMPS_MASK = 0xF;
+    private static final int STEPS_SHIFT = 10;
+
+    private MoveEncoding() {
+    }
+
+    public static int quietMove(int from, int direction, boolean isCrownMove) {
+        return from | (direction << STEPS_SHIFT) | (isCrownMove ? CROWN_FLAG : 0);
+    }
+
+    // the capture chain with one more jump in the given direction, a chain starts as just its from square and the
+    // caller makes sure it stays within MAX_JUMPS
+    public static int addJump(int move, int direction) {
+        var jumps = getJumpCount(move);
+        return (move & ~(JUMPS_MASK << JUMPS_SHIFT)) | ((jumps + 1) << JUMPS_SHIFT) | (direction << (STEPS_SHIFT + 2 * jumps));
+    }
+
+    public static int setCrownMove(int move) {
+        return move | CROWN_FLAG;
+    }
+
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int getJumpCount(int move) {
+        return (move >>> JUMPS_SHIFT) & JUMPS_MASK;
+    }
+
+    // direction of step i, a quiet move has only step 0
+    public static int getDirection(int move, int step) {
+        return (move >>> (STEPS_SHIFT + 2 * step)) & 3;
+    }
+
+    public static int getTo(int move) {
+        var square = getFrom(move);
+        var jumps = getJumpCount(move);
+
+        if (jumps == 0) return BitBoard.getNeighbour(square, getDirection(move, 0));
+
+        for (int i = 0; i < jumps; i++) {
+            var direction = getDirection(move, i);
+            square = BitBoard.getNeighbour(BitBoard.getNeighbour(square, direction), direction);
+        }
+
+        return square;
+    }
+
+    // mask of the squares of the pieces taken by a capture chain, 0 for a quiet move
+    public static int getCaptured(int move) {
+        var square = getFrom(move);
+        var captured = 0;
+
+        for (int i = 0; i < getJumpCount(move); i++) {
+            var direction = getDirection(move, i);
+            var via = BitBoard.getNeighbour(square, direction);
+            captured |= 1 << via;
+            square = BitBoard.getNeighbour(via, direction);
+        }
+
+        return captured;
+    }
+
+    public static boolean isJumpMove(int move) {
+        return getJumpCount(move) != 0;
+    }
+
+    public static boolean isCrownMove(int move) {
+        return (move & CROWN_FLAG) != 0;
+    }
+
+    // UI facing view of a packed move, a capture chain becomes a Move made of its single jumps
+    public static Move toMove(int move) {
+        var from = getFrom(move);
+        var to = getTo(move);
+
+        if (getJumpCount(move) <= 1) {
+            return new Move(BitBoard.toRow(from), BitBoard.toCol(from), BitBoard.toRow(to), BitBoard.toCol(to), isJumpMove(move), isCrownMove(move));
+        }
+
+        var jumps = new ArrayList<Move>(getJumpCount(move));
+        var square = from;
+
+        for (int i = 0; i < getJumpCount(move); i++) {
+            var direction = getDirection(move, i);
+            var landing = BitBoard.getNeighbour(BitBoard.getNeighbour(square, direction), direction);
+            jumps.add(new Move(BitBoard.toRow(square), BitBoard.toCol(square), BitBoard.toRow(landing), BitBoard.toCol(landing), true, false));
+            square = landing;
+        }
+
+        return new Move(jumps, isCrownMove(move));
+    }
+
+    // packs a Move, such as one built from a drag and drop on the board
+    public static int fromMove(Move move) {
+        var from = BitBoard.toSquare(move.getOldRow(), move.getOldCol());
+
+        if (!move.isJumpMove()) {
+            return quietMove(from, getDirection(move), move.isCrownMove());
+        }
+
+        var packed = from;
+
+        for (var jump : move.getJumps()) {
+            packed = addJump(packed, getDirection(jump));
+        }
+
+        return move.isCrownMove() ? setCrownMove(packed) : packed;
+    }
+
+    // direction of a single step or jump, see BitBoard for the order of the directions
+    private static int getDirection(Move move) {
+        var isUp = move.getNewRow() < move.getOldRow();
+        var isRight = move.getNewCol() > move.getOldCol();
+
+        return (isUp ? BitBoard.UP_LEFT : BitBoard.DOWN_LEFT) + (isRight ? 1 : 0);
+    }
+
+    // squares are printed as 1-32 (the square index plus one), e.g. "9-14" or "9x18", a capture chain lists every
+    // landing square, e.g. "9x18x27"
+    public static String toString(int move) {
+        if (!isJumpMove(move)) return (getFrom(move) + 1) + "-" + (getTo(move) + 1);
+
+        var notation = new StringBuilder().append(getFrom(move) + 1);
+        var square = getFrom(move);
+
+        for (int i = 0; i < getJumpCount(move); i++) {
+            var direction = getDirection(move, i);
+            square = BitBoard.getNeighbour(BitBoard.getNeighbour(square, direction), direction);
+            notation.append('x').append(square + 1);
+        }
+
+        return notation.toString();
+    }
+
+    // the legal move written in the notation of toString, or NO_MOVE if none of the moves matches
+    public static int parse(String notation, MoveList legalMoves) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (toString(legalMoves.get(i)).equals(notation)) return legalMoves.get(i);
+        }
+
+        return NO_MOVE;
+    }
+}
@@ -0,0 +1,79 @@
+package com.farah.model;
+
+/**
+ * MoveList is a reusable, fixed capacity list of packed moves (see MoveEncoding). The search keeps one list per ply and
+ * clears it before generating the moves of a node, so move generation does not allocate. Each move has an int score
+ * slot next to it which the search uses for move ordering.
+ */
+public class MoveList {
+    public static final int MAX_MOVES = 128;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private final int[] scores = new int[MAX_MOVES];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return i;
+        }
+
+        return -1;
+    }
+
+    // swap two moves along with their scores
+    public void swap(int i, int j) {
+        var move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+
+        var score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    // move the move at the given index to the front, keeping the order of the others
+    public void moveToFront(int index) {
+        var move = moves[index];
+        var score = scores[index];
+
+        System.arraycopy(moves, 0, moves, 1, index);
+        System.arraycopy(scores, 0, scores, 1, index);
+
+        moves[0] = move;
+        scores[0] = score;
+    }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        System.arraycopy(other.scores, 0, scores, 0, other.size);
+        size = other.size;
+    }
+}
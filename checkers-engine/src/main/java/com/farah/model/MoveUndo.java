@@ -0,0 +1,30 @@
+package com.farah.model;
+
+/**
+ * MoveUndo is the record needed to take back a move made with BitBoard.makeMove. It stores the squares of the captured
+ * pieces (every piece of a capture chain) and which of them were kings, and whether the moving piece was crowned by the
+ * move, everything else can be derived from the move itself. The position key and evaluation scores from before the
+ * move are kept as well so they can be restored without recalculation.
+ * Records are reused by the search, one per ply, so making and unmaking moves does not allocate.
+ */
+public class MoveUndo {
+    int captured;
+    int capturedKings;
+    boolean crowned;
+    long key;
+    int computerScore;
+    int humanScore;
+
+    // mask of the squares of the captured pieces, 0 for a quiet move
+    public int getCaptured() {
+        return captured;
+    }
+
+    public int getCapturedKings() {
+        return capturedKings;
+    }
+
+    public boolean isCrowned() {
+        return crowned;
+    }
+}
@@ -0,0 +1,119 @@
+package com.farah.model;
+
+import java.util.Arrays;
+
+/**
+ * PositionHistory is a stack of the Zobrist keys (with the player to move) of the positions of a game, used to find
+ * repeated positions. The game keeps one for the moves played so far and the search pushes and pops the positions of the
+ * line it is searching on top of a copy of it, so a repetition is found whether it lies on the board or in the search.
+ * Only king moves which do not capture can be undone, so a position can only repeat one reached since the last capture
+ * or man move; each entry remembers where that stretch began and older entries are never looked at. Finding a repeat is
+ * O(1) for almost every position: a small table counts the keys on the stack by their low bits, and only when the count
+ * of the key shows it may be there already are the entries of the same player to move since the last irreversible move
+ * compared.
+ */
+public class PositionHistory {
+    private static final int FILTER_SIZE = 1 << 12;
+    private static final int FILTER_MASK = FILTER_SIZE - 1;
+
+    private long[] keys = new long[256];
+    // index of the first entry since the last irreversible move, for each entry
+    private int[] reversibleStarts = new int[256];
+    private int size;
+
+    private final int[] filter = new int[FILTER_SIZE];
+
+    public PositionHistory() {
+    }
+
+    public PositionHistory(PositionHistory other) {
+        set(other);
+    }
+
+    // add a position, reversible when the move which led to it was a king move without a capture
+    public void push(long key, boolean isReversible) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            reversibleStarts = Arrays.copyOf(reversibleStarts, size * 2);
+        }
+
+        keys[size] = key;
+        reversibleStarts[size] = isReversible && size > 0 ? reversibleStarts[size - 1] : size;
+        filter[(int) key & FILTER_MASK]++;
+        size++;
+    }
+
+    public void pop() {
+        size--;
+        filter[(int) keys[size] & FILTER_MASK]--;
+    }
+
+    // the same positions as another history
+    public void set(PositionHistory other) {
+        clear();
+        for (int i = 0; i < other.size; i++) push(other.keys[i], other.reversibleStarts[i] != i);
+    }
+
+    public void clear() {
+        while (size > 0) pop();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // key of the last position, the one on the board
+    public long getLastKey() {
+        return keys[size - 1];
+    }
+
+    // whether the last position has been reached before
+    public boolean isRepetition() {
+        return size > 0 && filter[(int) keys[size - 1] & FILTER_MASK] > 1 && getOccurrences() > 1;
+    }
+
+    // how many times the last position has been reached, including now
+    public int getOccurrences() {
+        if (size == 0) return 0;
+
+        var last = size - 1;
+        var key = keys[last];
+        var occurrences = 1;
+
+        // the player to move alternates, so only every other entry can hold the same position
+        for (int i = last - 2; i >= reversibleStarts[last]; i -= 2) {
+            if (keys[i] == key) occurrences++;
+        }
+
+        return occurrences;
+    }
+
+    // the same positions, with the same moves which cannot be undone
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        if (!(o instanceof PositionHistory)) {
+            return false;
+        }
+
+        PositionHistory h = (PositionHistory) o;
+
+        return size == h.size && Arrays.equals(keys, 0, size, h.keys, 0, size)
+                && Arrays.equals(reversibleStarts, 0, size, h.reversibleStarts, 0, size);
+    }
+
+    @Override
+    public int hashCode() {
+        var hash = 1;
+        for (int i = 0; i < size; i++) hash = 31 * hash + Long.hashCode(keys[i]) + reversibleStarts[i];
+
+        return hash;
+    }
+}
@@ -0,0 +1,67 @@
+package com.farah.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist class holds the random keys used to hash a position. A position key is the XOR of one key per piece (for each
+ * of the four piece kinds on each of the 32 squares) plus a side key when the human is to move, which means the key can
+ * be updated incrementally as pieces are added and removed. The keys come from a fixed seed so they are identical from
+ * one run to the next, allowing hashes to be stored in files.
+ */
+public class Zobrist {
+    // piece kinds used to index the key table
+    public static final int COMPUTER_MAN = 0;
+    public static final int COMPUTER_KING = 1;
+    public static final int HUMAN_MAN = 2;
+    public static final int HUMAN_KING = 3;
+
+    private static final long SEED = 0x5EED_C0DE_CAFEL;
+
+    private static final long[][] PIECE_KEYS = new long[4][BitBoard.SQUARES];
+    private static final long SIDE_KEY;
+
+    static {
+        var random = new SplittableRandom(SEED);
+
+        for (int kind = 0; kind < 4; kind++) {
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                PIECE_KEYS[kind][square] = random.nextLong();
+            }
+        }
+
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long getPieceKey(int kind, int square) {
+        return PIECE_KEYS[kind][square];
+    }
+
+    // the side key is XORed in when the human player is to move
+    public static long getSideKey(PlayerType playerType) {
+        return playerType.equals(PlayerType.HUMAN) ? SIDE_KEY : 0L;
+    }
+
+    public static int getKind(PlayerType playerType, boolean isKing) {
+        if (playerType.equals(PlayerType.COMPUTER)) {
+            return isKing ? COMPUTER_KING : COMPUTER_MAN;
+        }
+        return isKing ? HUMAN_KING : HUMAN_MAN;
+    }
+
+    // full key calculation for the pieces of a position, the incremental updates in BitBoard must always agree with it
+    public static long getKey(int computerPieces, int humanPieces, int kings) {
+        long key = 0L;
+
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            int bit = 1 << square;
+
+            if ((computerPieces & bit) != 0) key ^= PIECE_KEYS[getKind(PlayerType.COMPUTER, (kings & bit) != 0)][square];
+            if ((humanPieces & bit) != 0) key ^= PIECE_KEYS[getKind(PlayerType.HUMAN, (kings & bit) != 0)][square];
+        }
+
+        return key;
+    }
+}
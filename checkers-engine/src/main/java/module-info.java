@@ -0,0 +1,7 @@
+module com.farah.engine {
+    requires java.management;
+
+    exports com.farah.constants;
+    exports com.farah.engine;
+    exports com.farah.model;
+}
@@ -0,0 +1,44 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EngineServiceTest {
+    private final EngineService engineService = new EngineService(1);
+
+    @AfterEach
+    void shutdown() {
+        engineService.shutdown();
+    }
+
+    private static PositionHistory historyOf(BitBoard position, PlayerType playerType, boolean isReversible) {
+        var history = new PositionHistory();
+        history.push(0x1234, false);
+        history.push(position.getKey(playerType), isReversible);
+
+        return history;
+    }
+
+    @Test
+    void ponderHitNeedsTheSameHistory() throws Exception {
+        var position = BitBoard.getStartPosition();
+        var limits = SearchLimits.depth(2);
+
+        var ponder = engineService.startPonder(position, PlayerType.COMPUTER, historyOf(position, PlayerType.COMPUTER, false), limits, info -> { });
+        var search = engineService.startSearch(position, PlayerType.COMPUTER, historyOf(position, PlayerType.COMPUTER, false), limits, info -> { });
+        assertSame(ponder, search);
+        assertNotNull(search.get().getBestMove());
+
+        ponder = engineService.startPonder(position, PlayerType.COMPUTER, historyOf(position, PlayerType.COMPUTER, false), limits, info -> { });
+        search = engineService.startSearch(position, PlayerType.COMPUTER, historyOf(position, PlayerType.COMPUTER, true), limits, info -> { });
+        assertNotSame(ponder, search);
+        assertNotNull(search.get().getBestMove());
+    }
+}
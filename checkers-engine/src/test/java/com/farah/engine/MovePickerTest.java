@@ -0,0 +1,98 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovePickerTest {
+    private static final int PLIES = 4;
+
+    @Test
+    void everyLegalMoveComesOutOnceInStageOrder() {
+        var random = new Random(1);
+        var moveOrdering = new MoveOrdering();
+        var picker = new MovePicker(moveOrdering);
+        var legalMoves = new MoveList();
+        var positions = 0;
+
+        // the last move played in any position, a table move which is usually not legal in the next one
+        var lastMove = MoveEncoding.NO_MOVE;
+
+        for (int game = 0; game < 200; game++) {
+            var board = BitBoard.getStartPosition();
+            var playerType = PlayerType.HUMAN;
+
+            for (int ply = 0; ply < 150; ply++) {
+                board.generateMoves(playerType, legalMoves);
+                if (legalMoves.isEmpty()) break;
+
+                var searchPly = random.nextInt(PLIES);
+                var choice = random.nextInt(3);
+                var tableMove = choice == 0 ? MoveEncoding.NO_MOVE : choice == 1 ? lastMove : legalMoves.get(random.nextInt(legalMoves.size()));
+
+                picker.init(board, playerType, tableMove, searchPly);
+                assertPickedInOrder(picker, moveOrdering, board, playerType, tableMove, searchPly);
+                positions++;
+
+                // quiet moves of this position become the killers and history of the following ones
+                var move = legalMoves.get(random.nextInt(legalMoves.size()));
+                moveOrdering.recordCutoff(move, board, playerType, random.nextInt(PLIES), 1 + random.nextInt(8));
+
+                board.makeMove(move, playerType, new MoveUndo());
+                playerType = BitBoard.getOppPlayer(playerType);
+                lastMove = move;
+            }
+        }
+
+        assertTrue(positions > 10_000, "positions " + positions);
+    }
+
+    private static void assertPickedInOrder(MovePicker picker, MoveOrdering moveOrdering, BitBoard board, PlayerType playerType, int tableMove, int ply) {
+        List<Integer> picked = new ArrayList<>();
+        for (int move = picker.next(); move != MoveEncoding.NO_MOVE; move = picker.next()) picked.add(move);
+
+        // the picker stays done once it has run out
+        assertEquals(MoveEncoding.NO_MOVE, picker.next());
+
+        var legalMoves = new MoveList();
+        board.generateMoves(playerType, legalMoves);
+        assertEquals(legalMoves.size(), picked.size());
+        for (int i = 0; i < legalMoves.size(); i++) assertTrue(picked.contains(legalMoves.get(i)));
+
+        var next = 0;
+
+        // a legal table move comes first, then the killers which are legal here
+        if (legalMoves.indexOf(tableMove) >= 0) {
+            assertEquals(tableMove, picked.get(next++));
+        }
+
+        if (!picker.isCapturePosition()) {
+            for (int slot = 0; slot < 2; slot++) {
+                var killer = moveOrdering.getKiller(ply, slot);
+
+                if (killer != tableMove && legalMoves.indexOf(killer) >= 0) assertEquals(killer, picked.get(next++));
+            }
+        }
+
+        // the rest come by their ordering scores, captures by chain length and quiet moves with crowning moves first and
+        // then by history
+        var rest = new MoveList();
+        for (int i = next; i < picked.size(); i++) rest.add(picked.get(i));
+        moveOrdering.scoreMoves(rest, MoveEncoding.NO_MOVE, board, playerType, ply);
+
+        for (int i = 0; i < rest.size(); i++) {
+            assertEquals(picker.isCapturePosition(), MoveEncoding.isJumpMove(rest.get(i)));
+            if (i > 0) assertTrue(rest.getScore(i - 1) >= rest.getScore(i), "move " + MoveEncoding.toString(rest.get(i)) + " out of order");
+        }
+    }
+}
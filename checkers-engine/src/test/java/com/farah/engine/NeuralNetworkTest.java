@@ -0,0 +1,41 @@
+package com.farah.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NeuralNetworkTest {
+    @TempDir
+    Path directory;
+
+    private static NeuralNetwork getNetwork(short inputWeight, short bias) {
+        var inputWeights = new short[NeuralNetwork.INPUTS];
+        Arrays.fill(inputWeights, inputWeight);
+
+        return new NeuralNetwork(1, 1, inputWeights, new short[]{bias}, new short[]{1}, 0);
+    }
+
+    @Test
+    void weightsWithinTheAccumulatorRangeAreAccepted() throws IOException {
+        // 24 pieces of the largest weight and the bias just fit in a short
+        var network = getNetwork((short) 1300, (short) (Short.MAX_VALUE - 24 * 1300));
+
+        var file = directory.resolve("network.bin");
+        network.write(file);
+        assertEquals(1, NeuralNetwork.load(file).getHiddenSize());
+
+        NeuralNetwork.fromHeuristic();
+    }
+
+    @Test
+    void weightsWhichCanOverflowTheAccumulatorAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> getNetwork((short) 1300, (short) (Short.MAX_VALUE - 24 * 1300 + 1)));
+        assertThrows(IllegalArgumentException.class, () -> getNetwork((short) -1400, (short) 0));
+    }
+}
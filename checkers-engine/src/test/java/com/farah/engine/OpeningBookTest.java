@@ -0,0 +1,120 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpeningBookTest {
+    private static final int PROBES = 3000;
+
+    @TempDir
+    static Path directory;
+
+    private static Path file;
+    private static OpeningBookBuilder builder;
+    private static OpeningBook book;
+
+    @BeforeAll
+    static void build() throws IOException {
+        builder = new OpeningBookBuilder(3);
+        builder.addGameRecord("22-18 11-14 18x11 7x14 1-0");
+        builder.addGameRecord("22-18 12-16 0-1");
+        builder.addGameRecord("23-19 9-13 1/2-1/2");
+
+        file = directory.resolve("book.bin");
+        builder.write(file);
+        book = OpeningBook.open(file);
+    }
+
+    // the moves the book gives for the position after the moves, with how often each came out of PROBES probes
+    private static Map<String, Integer> probe(String... moves) {
+        var board = BitBoard.getStartPosition();
+        var playerType = PlayerType.HUMAN;
+        var legalMoves = new MoveList();
+
+        for (String move : moves) {
+            board.generateMoves(playerType, legalMoves);
+            board.makeMove(MoveEncoding.parse(move, legalMoves), playerType, new MoveUndo());
+            playerType = BitBoard.getOppPlayer(playerType);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < PROBES; i++) {
+            var move = book.probe(board, playerType);
+            counts.merge(move == MoveEncoding.NO_MOVE ? "none" : MoveEncoding.toString(move), 1, Integer::sum);
+        }
+
+        return counts;
+    }
+
+    @Test
+    void writtenBookHasEveryPositionAndMove() {
+        // the start position has two moves, the positions after 22-18 two and after 22-18 11-14 one, and the position
+        // after 23-19 one. The fourth ply of the first game is beyond the three plies of the book
+        assertEquals(6, builder.size());
+        assertEquals(builder.size(), book.size());
+        assertEquals(OpeningBook.HEADER_SIZE + 6L * OpeningBook.ENTRY_SIZE, file.toFile().length());
+    }
+
+    @Test
+    void movesArePickedByWeight() {
+        // 22-18 was played in a win and a loss for the human (3 + 1), 23-19 in a draw (2)
+        var counts = probe();
+        assertEquals(2, counts.size(), counts.toString());
+
+        var share = counts.get("22-18") / (double) PROBES;
+        assertTrue(share > 0.6 && share < 0.74, counts.toString());
+
+        // the computer won the second game (3) and lost the first (1)
+        counts = probe("22-18");
+        assertEquals(2, counts.size(), counts.toString());
+
+        share = counts.get("12-16") / (double) PROBES;
+        assertTrue(share > 0.68 && share < 0.82, counts.toString());
+
+        assertEquals(Map.of("18x11", PROBES), probe("22-18", "11-14"));
+    }
+
+    @Test
+    void positionsOutsideTheBookHaveNoMove() {
+        assertEquals(Map.of("none", PROBES), probe("22-18", "11-14", "18x11"));
+        assertEquals(Map.of("none", PROBES), probe("21-17"));
+
+        // the same position with the other player to move is another key
+        assertNull(book.getMove(BitBoard.getStartPosition(), PlayerType.COMPUTER));
+        assertNull(OpeningBook.NONE.getMove(BitBoard.getStartPosition(), PlayerType.HUMAN));
+    }
+
+    @Test
+    void damagedFilesAreRefused() throws IOException {
+        var bytes = Files.readAllBytes(file);
+
+        var truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> OpeningBook.open(truncated));
+
+        var wrongMagic = directory.resolve("magic.bin");
+        var copy = bytes.clone();
+        copy[0]++;
+        Files.write(wrongMagic, copy);
+        assertThrows(IOException.class, () -> OpeningBook.open(wrongMagic));
+    }
+}
@@ -0,0 +1,249 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Move;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.farah.model.BitBoard.toSquare;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTest {
+    // the squares of the three rows on each side, where every term of the heuristic treats the two sides alike
+    private static final int HOME_ROWS = 0x00000FFF;
+
+    // a position turned round with the sides swapped, square s becomes square 31 - s
+    private static BitBoard mirror(BitBoard board) {
+        return new BitBoard(Integer.reverse(board.getHumanPieces()), Integer.reverse(board.getComputerPieces()),
+                Integer.reverse(board.getKings()));
+    }
+
+    @Test
+    void evenPositionsEvaluateToTheDrawScore() {
+        var start = BitBoard.getStartPosition();
+        assertEquals(Search.DRAW_SCORE, start.getEvaluation(PlayerType.COMPUTER));
+        assertEquals(Search.DRAW_SCORE, start.getEvaluation(PlayerType.HUMAN));
+
+        var random = new Random(1);
+
+        for (int i = 0; i < 1000; i++) {
+            var pieces = random.nextInt() & HOME_ROWS;
+            var kings = random.nextInt() & pieces;
+            var board = new BitBoard(pieces, Integer.reverse(pieces), kings | Integer.reverse(kings));
+
+            assertEquals(Search.DRAW_SCORE, board.getEvaluation(PlayerType.COMPUTER));
+            assertEquals(Search.DRAW_SCORE, board.getEvaluation(PlayerType.HUMAN));
+        }
+    }
+
+    @Test
+    void mirroredPositionsEvaluateTheSameForThePlayerToMove() {
+        var random = new Random(2);
+
+        for (int i = 0; i < 1000; i++) {
+            var computerPieces = random.nextInt() & HOME_ROWS;
+            var humanPieces = random.nextInt() & Integer.reverse(HOME_ROWS);
+            var board = new BitBoard(computerPieces, humanPieces, random.nextInt() & (computerPieces | humanPieces));
+
+            assertEquals(board.getEvaluation(PlayerType.COMPUTER), mirror(board).getEvaluation(PlayerType.HUMAN));
+            assertEquals(-board.getEvaluation(PlayerType.COMPUTER), board.getEvaluation(PlayerType.HUMAN));
+        }
+    }
+
+    @Test
+    void heuristicNetworkMatchesTheEvaluation() {
+        var evaluator = new NeuralEvaluator(NeuralNetwork.fromHeuristic());
+        var random = new Random(3);
+
+        for (int i = 0; i < 1000; i++) {
+            var computerPieces = random.nextInt() & random.nextInt();
+            var humanPieces = random.nextInt() & random.nextInt() & ~computerPieces;
+            var board = new BitBoard(computerPieces, humanPieces, random.nextInt() & random.nextInt());
+
+            assertEquals(board.getEvaluation(PlayerType.COMPUTER), evaluator.evaluate(board));
+        }
+    }
+
+    @Test
+    void startPositionSearchesCloseToADraw() {
+        var search = new Search(new TranspositionTable(16), Tablebase.NONE);
+
+        for (PlayerType playerType : PlayerType.values()) {
+            var result = search.search(BitBoard.getStartPosition(), playerType, SearchLimits.depth(8));
+            assertTrue(Math.abs(result.getScore() - Search.DRAW_SCORE) <= 2, "score " + result.getScore());
+        }
+    }
+
+    // the perft positions of the benchmarks: start, opening, middle game and ending, with the human to move
+    private static final int[][] PERFT_POSITIONS = {
+            {0x00000FFF, 0xFFF00000, 0x00000000},
+            {0x000421AF, 0xFF080000, 0x00000000},
+            {0x00800EF2, 0xCF048100, 0x00000000},
+            {0x20001409, 0x11280080, 0x20000000}};
+
+    private static final int SELECTIVE_DEPTH = 8;
+    private static final int MATE_DEPTH = 9;
+
+    @Test
+    void selectiveSearchFindsAFullWidthBestMove() {
+        for (int[] masks : PERFT_POSITIONS) {
+            var board = new BitBoard(masks[0], masks[1], masks[2]);
+            assertBestMove(board, PlayerType.HUMAN, SELECTIVE_DEPTH);
+        }
+    }
+
+    @Test
+    void selectiveSearchFindsTheQuickestWin() {
+        // endings from random games which the full width search wins within MATE_DEPTH plies
+        var random = new Random(4);
+        var moves = new MoveList();
+        var wins = 0;
+
+        for (int game = 0; wins < 10; game++) {
+            var board = BitBoard.getStartPosition();
+            var playerType = PlayerType.HUMAN;
+
+            for (int ply = 0; ply < 300 && Integer.bitCount(board.getComputerPieces() | board.getHumanPieces()) > 6; ply++) {
+                board.generateMoves(playerType, moves);
+                if (moves.isEmpty()) break;
+
+                board.makeMove(moves.get(random.nextInt(moves.size())), playerType, new MoveUndo());
+                playerType = BitBoard.getOppPlayer(playerType);
+            }
+
+            if (!board.hasMoves(playerType)) continue;
+
+            var history = new PositionHistory();
+            history.push(board.getKey(playerType), false);
+
+            if (getFullWidthScore(board, playerType, MATE_DEPTH, history) < Search.WIN_SCORE - Search.MAX_PLY) continue;
+
+            var result = assertBestMove(board, playerType, MATE_DEPTH);
+            assertEquals(getFullWidthScore(board, playerType, MATE_DEPTH, history), result.getScore());
+            wins++;
+        }
+    }
+
+    // the move chosen with the quiescence search, late move reductions and futility pruning scores as well in a full width
+    // search, without any of them, as the best move of that search
+    private static SearchResult assertBestMove(BitBoard board, PlayerType playerType, int depth) {
+        var result = new Search(new TranspositionTable(16), Tablebase.NONE).search(board, playerType, SearchLimits.depth(depth));
+        var history = new PositionHistory();
+        history.push(board.getKey(playerType), false);
+
+        var bestScore = getFullWidthScore(board, playerType, depth, history);
+        var moveScore = -getFullWidthScore(board, playerType, MoveEncoding.fromMove(result.getBestMove()), depth, history);
+        assertEquals(bestScore, moveScore, "move " + MoveEncoding.toString(MoveEncoding.fromMove(result.getBestMove())));
+
+        return result;
+    }
+
+    private static int getFullWidthScore(BitBoard board, PlayerType playerType, int depth, PositionHistory history) {
+        var moves = new MoveList();
+        board.generateMoves(playerType, moves);
+        var bestScore = -Search.INFINITY;
+
+        for (int i = 0; i < moves.size(); i++) {
+            bestScore = Math.max(bestScore, -getFullWidthScore(board, playerType, moves.get(i), depth, history));
+        }
+
+        return bestScore;
+    }
+
+    // the score of the position after the move, from the point of view of the opponent, with a plain alpha-beta search
+    private static int getFullWidthScore(BitBoard board, PlayerType playerType, int move, int depth, PositionHistory history) {
+        var undo = new MoveUndo();
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var isReversible = board.isReversibleMove(move);
+
+        board.makeMove(move, playerType, undo);
+        history.push(board.getKey(oppPlayer), isReversible);
+        var score = fullWidth(board, oppPlayer, depth - 1, 1, -Search.INFINITY, Search.INFINITY, history);
+        history.pop();
+        board.unmakeMove(move, playerType, undo);
+
+        return score;
+    }
+
+    // alpha-beta over every move to the depth, then every capture, with the same scores as Search
+    private static int fullWidth(BitBoard board, PlayerType playerType, int depth, int ply, int alpha, int beta, PositionHistory history) {
+        if (history.isRepetition()) return Search.DRAW_SCORE;
+
+        var moves = new MoveList();
+        board.generateMoves(playerType, moves);
+        if (moves.isEmpty()) return -Search.WIN_SCORE + ply;
+
+        var isCapture = MoveEncoding.isJumpMove(moves.get(0));
+        if (depth <= 0 && !isCapture) return board.getEvaluation(playerType);
+
+        var oppPlayer = BitBoard.getOppPlayer(playerType);
+        var undo = new MoveUndo();
+        var bestScore = -Search.INFINITY;
+
+        for (int i = 0; i < moves.size() && alpha < beta; i++) {
+            var isReversible = board.isReversibleMove(moves.get(i));
+            board.makeMove(moves.get(i), playerType, undo);
+            history.push(board.getKey(oppPlayer), isReversible);
+
+            var score = -fullWidth(board, oppPlayer, depth - 1, ply + 1, -beta, -alpha, history);
+
+            history.pop();
+            board.unmakeMove(moves.get(i), playerType, undo);
+
+            bestScore = Math.max(bestScore, score);
+            alpha = Math.max(alpha, score);
+        }
+
+        return bestScore;
+    }
+
+    private static BitBoard kings(int computerKings, int humanKings) {
+        return new BitBoard(computerKings, humanKings, computerKings | humanKings);
+    }
+
+    private static int bit(int row, int col) {
+        return 1 << toSquare(row, col);
+    }
+
+    @Test
+    void repeatingAnEarlierPositionIsADraw() {
+        // two computer kings against one human king, the human can only hope for a draw. The computer king and the human
+        // king have each gone there and back once, and moving back to (6,6) repeats the first position
+        var farKing = bit(0, 6);
+        var history = new PositionHistory();
+        history.push(kings(bit(1, 1) | farKing, bit(6, 6)).getKey(PlayerType.COMPUTER), false);
+        history.push(kings(bit(2, 2) | farKing, bit(6, 6)).getKey(PlayerType.HUMAN), true);
+        history.push(kings(bit(2, 2) | farKing, bit(5, 5)).getKey(PlayerType.COMPUTER), true);
+
+        var root = kings(bit(1, 1) | farKing, bit(5, 5));
+        history.push(root.getKey(PlayerType.HUMAN), true);
+
+        var search = new Search(new TranspositionTable(16), Tablebase.NONE);
+        var result = search.search(root, PlayerType.HUMAN, history, SearchLimits.depth(6), info -> { });
+
+        assertEquals(Search.DRAW_SCORE, result.getScore());
+        assertEquals(new Move(5, 5, 6, 6, false, false), result.getBestMove());
+
+        // without the history the same position is lost for the human
+        search.getTranspositionTable().clear();
+        assertTrue(search.search(root, PlayerType.HUMAN, SearchLimits.depth(6)).getScore() < Search.DRAW_SCORE);
+    }
+
+    @Test
+    void historyMustEndWithTheRoot() {
+        var history = new PositionHistory();
+        history.push(BitBoard.getStartPosition().getKey(PlayerType.HUMAN), false);
+
+        var search = new Search(new TranspositionTable(1), Tablebase.NONE);
+        assertThrows(IllegalArgumentException.class,
+                () -> search.search(BitBoard.getStartPosition(), PlayerType.COMPUTER, history, SearchLimits.depth(1), info -> { }));
+    }
+}
@@ -0,0 +1,83 @@
+package com.farah.engine;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.farah.model.BitBoard.toSquare;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablebaseTest {
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        var file = directory.resolve("tablebase.bin");
+        var generator = new TablebaseGenerator(3, 2);
+        generator.generate();
+        generator.write(file);
+
+        tablebase = Tablebase.open(file);
+    }
+
+    private static int bit(int row, int col) {
+        return 1 << toSquare(row, col);
+    }
+
+    @Test
+    void captureOfTheLastPieceWinsInOne() {
+        var kings = bit(3, 3) | bit(7, 7) | bit(4, 4);
+        var board = new BitBoard(bit(3, 3) | bit(7, 7), bit(4, 4), kings);
+
+        assertTrue(tablebase.contains(board));
+        assertEquals(Tablebase.toEntry(true, 1), tablebase.probe(board, PlayerType.COMPUTER));
+    }
+
+    @Test
+    void blockedKingLosesInZero() {
+        // the human king in the single corner has no move and no capture, the square behind the computer king is taken
+        var kings = bit(7, 7) | bit(6, 6) | bit(5, 5);
+        var board = new BitBoard(bit(6, 6) | bit(5, 5), bit(7, 7), kings);
+
+        var entry = tablebase.probe(board, PlayerType.HUMAN);
+        assertTrue(Tablebase.isLoss(entry));
+        assertEquals(0, Tablebase.getDistance(entry));
+        assertTrue(Tablebase.isWin(tablebase.probe(board, PlayerType.COMPUTER)));
+    }
+
+    @Test
+    void kingAgainstKingInTheMiddleIsADraw() {
+        var kings = bit(3, 1) | bit(4, 6);
+        var board = new BitBoard(bit(3, 1), bit(4, 6), kings);
+
+        assertEquals(0, tablebase.probe(board, PlayerType.COMPUTER));
+        assertEquals(0, tablebase.probe(board, PlayerType.HUMAN));
+    }
+
+    @Test
+    void missingSliceIsUnknown() throws IOException {
+        // a file with only the king against king slice
+        var file = directory.resolve("kings.bin");
+        var counts = new int[]{0, 1, 0, 1};
+        Tablebase.write(file, 3, new int[][]{counts}, new byte[][]{new byte[(int) TablebaseIndex.getSliceSize(counts)]});
+        var partial = Tablebase.open(file);
+
+        var kingAgainstKing = new BitBoard(bit(3, 1), bit(4, 6), bit(3, 1) | bit(4, 6));
+        assertTrue(partial.contains(kingAgainstKing));
+        assertEquals(0, partial.probe(kingAgainstKing, PlayerType.COMPUTER));
+
+        var manAgainstKing = new BitBoard(bit(3, 1), bit(4, 6), bit(4, 6));
+        assertFalse(partial.contains(manAgainstKing));
+        assertEquals(Tablebase.UNKNOWN, partial.probe(manAgainstKing, PlayerType.COMPUTER));
+    }
+}
@@ -0,0 +1,93 @@
+package com.farah.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextProtocolTest {
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final EngineService engineService = new EngineService(1);
+    private final TextProtocol protocol = new TextProtocol(engineService, new PrintStream(output, true, StandardCharsets.UTF_8));
+
+    @AfterEach
+    void shutdown() {
+        engineService.shutdown();
+    }
+
+    // the lines printed so far, without the info lines of the searches
+    private List<String> getLines() {
+        return Arrays.stream(output.toString(StandardCharsets.UTF_8).split("\\R"))
+                .filter(line -> !line.isEmpty() && !line.startsWith("info"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void missingValuesAreUsageErrors() {
+        protocol.execute("go depth");
+        protocol.execute("position");
+        protocol.execute("position 1 2");
+
+        var lines = getLines();
+        assertEquals(3, lines.size());
+        assertEquals("error depth needs a value: go depth", lines.get(0));
+        assertTrue(lines.get(1).startsWith("error usage position"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("error usage position"), lines.get(2));
+    }
+
+    @Test
+    void inconsistentMasksAreRejected() {
+        protocol.execute("position 3 1 0 computer");
+        protocol.execute("position 1 2 4 human");
+        protocol.execute("board");
+
+        var lines = getLines();
+        assertEquals("error computer and human pieces overlap: position 3 1 0 computer", lines.get(0));
+        assertEquals("error kings on empty squares: position 1 2 4 human", lines.get(1));
+
+        // the start position is kept
+        assertEquals("human to move", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    void cancelledSearchesPrintNothing() throws Exception {
+        protocol.execute("go depth 30");
+        protocol.execute("newgame");
+        protocol.execute("go depth 30");
+        protocol.execute("go depth 1");
+
+        while (engineService.isSearching()) Thread.sleep(10);
+        Thread.sleep(100);
+
+        var lines = getLines();
+        assertEquals(1, lines.size(), lines.toString());
+        assertTrue(lines.get(0).startsWith("bestmove"), lines.get(0));
+    }
+
+    @Test
+    void ponderResultWaitsForPonderhitOrStop() throws Exception {
+        for (String release : new String[]{"ponderhit", "stop"}) {
+            protocol.execute("position startpos moves 22-18");
+            protocol.execute("go ponder depth 2");
+
+            while (engineService.isSearching()) Thread.sleep(10);
+            Thread.sleep(100);
+            assertTrue(getLines().isEmpty(), getLines().toString());
+
+            protocol.execute(release);
+
+            var lines = getLines();
+            assertEquals(1, lines.size(), lines.toString());
+            assertTrue(lines.get(0).startsWith("bestmove"), lines.get(0));
+            output.reset();
+        }
+    }
+}
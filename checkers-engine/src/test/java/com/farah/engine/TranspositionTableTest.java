@@ -0,0 +1,59 @@
+package com.farah.engine;
+
+import com.farah.model.MoveEncoding;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TranspositionTableTest {
+    @Test
+    void entriesRoundTrip() {
+        var table = new TranspositionTable(1);
+
+        // a long capture chain uses the top bits of the move
+        var chain = 9;
+        for (int i = 0; i < MoveEncoding.MAX_JUMPS; i++) chain = MoveEncoding.addJump(chain, i % 2 == 0 ? 1 : 0);
+
+        int[] moves = {MoveEncoding.NO_MOVE, MoveEncoding.quietMove(9, 1, false), MoveEncoding.setCrownMove(chain)};
+        int[] scores = {0, 1, -1, Search.WIN_SCORE - 3, -Search.WIN_SCORE + 3, Search.INFINITY, -Search.INFINITY};
+        int[] bounds = {TranspositionTable.EXACT, TranspositionTable.LOWER_BOUND, TranspositionTable.UPPER_BOUND};
+        long key = 0x9E3779B97F4A7C15L;
+
+        for (int move : moves) {
+            for (int score : scores) {
+                for (int bound : bounds) {
+                    for (int depth : new int[]{0, 1, Search.MAX_PLY - 1}) {
+                        key = key * 6364136223846793005L + 1442695040888963407L;
+                        table.store(key, depth, bound, score, move);
+
+                        var entry = table.probe(key);
+                        assertEquals(move, TranspositionTable.getMove(entry));
+                        assertEquals(score, TranspositionTable.getScore(entry));
+                        assertEquals(depth, TranspositionTable.getDepth(entry));
+                        assertEquals(bound, TranspositionTable.getBound(entry));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void storeWithoutMoveKeepsOldMove() {
+        var table = new TranspositionTable(1);
+        var move = MoveEncoding.quietMove(9, 1, false);
+
+        table.store(42L, 3, TranspositionTable.EXACT, 10, move);
+        table.store(42L, 5, TranspositionTable.LOWER_BOUND, 20, MoveEncoding.NO_MOVE);
+
+        var entry = table.probe(42L);
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(5, TranspositionTable.getDepth(entry));
+        assertEquals(20, TranspositionTable.getScore(entry));
+    }
+
+    @Test
+    void missingKeyIsMiss() {
+        var table = new TranspositionTable(1);
+        assertEquals(TranspositionTable.MISS, table.probe(12345L));
+    }
+}
@@ -0,0 +1,128 @@
+package com.farah.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BitBoardTest {
+    // leaf counts from the start position, the human moves first
+    private static final long[] START_PERFT = {7, 49, 302, 1469, 7361, 36768};
+
+    @Test
+    void perftFromStartPosition() {
+        for (int depth = 1; depth <= START_PERFT.length; depth++) {
+            assertEquals(START_PERFT[depth - 1], perft(BitBoard.getStartPosition(), PlayerType.HUMAN, depth), "perft " + depth);
+        }
+    }
+
+    @Test
+    void makeUnmakeRestoresPosition() {
+        var random = new Random(1);
+        var moves = new MoveList();
+
+        for (int game = 0; game < 200; game++) {
+            var board = BitBoard.getStartPosition();
+            var playerType = PlayerType.HUMAN;
+
+            for (int ply = 0; ply < 150; ply++) {
+                board.generateMoves(playerType, moves);
+                if (moves.isEmpty()) break;
+
+                // every move is made and taken back before one is played
+                for (int i = 0; i < moves.size(); i++) {
+                    var before = new BitBoard(board);
+                    var undo = new MoveUndo();
+
+                    board.makeMove(moves.get(i), playerType, undo);
+                    assertConsistent(board);
+                    board.unmakeMove(moves.get(i), playerType, undo);
+
+                    assertEquals(before, board);
+                    assertEquals(before.getKey(), board.getKey());
+                    assertEquals(before.getBoardStateScore(PlayerType.COMPUTER), board.getBoardStateScore(PlayerType.COMPUTER));
+                    assertEquals(before.getBoardStateScore(PlayerType.HUMAN), board.getBoardStateScore(PlayerType.HUMAN));
+                }
+
+                board.makeMove(moves.get(random.nextInt(moves.size())), playerType, new MoveUndo());
+                playerType = BitBoard.getOppPlayer(playerType);
+            }
+        }
+    }
+
+    @Test
+    void incrementalScoresMatchTheCheckerBoardHeuristic() {
+        // every position of the perft tree, which has no kings yet
+        assertScoresMatchUnder(BitBoard.getStartPosition(), PlayerType.HUMAN, 6);
+
+        // and every position of random games, which go on into king endings
+        var random = new Random(2);
+        var moves = new MoveList();
+
+        for (int game = 0; game < 100; game++) {
+            var board = BitBoard.getStartPosition();
+            var playerType = PlayerType.HUMAN;
+
+            for (int ply = 0; ply < 150; ply++) {
+                board.generateMoves(playerType, moves);
+                if (moves.isEmpty()) break;
+
+                board.makeMove(moves.get(random.nextInt(moves.size())), playerType, new MoveUndo());
+                playerType = BitBoard.getOppPlayer(playerType);
+                assertScoresMatch(board);
+            }
+        }
+    }
+
+    private static void assertScoresMatchUnder(BitBoard board, PlayerType playerType, int depth) {
+        assertScoresMatch(board);
+        if (depth == 0) return;
+
+        var moves = new MoveList();
+        board.generateMoves(playerType, moves);
+        var undo = new MoveUndo();
+
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i), playerType, undo);
+            assertScoresMatchUnder(board, BitBoard.getOppPlayer(playerType), depth - 1);
+            board.unmakeMove(moves.get(i), playerType, undo);
+        }
+    }
+
+    // the scores kept up to date by makeMove are those of BoardUtils.getBoardStateScore on the same Checker[][] board
+    private static void assertScoresMatch(BitBoard board) {
+        var checkers = board.toCheckers();
+
+        for (PlayerType playerType : PlayerType.values()) {
+            assertEquals(BoardUtils.getBoardStateScore(checkers, playerType), board.getBoardStateScore(playerType));
+            assertEquals(BoardUtils.getBoardStateScore(checkers, playerType), BitBoard.fromCheckers(checkers).getBoardStateScore(playerType));
+        }
+    }
+
+    // the incrementally updated key and scores match those of the same position built from scratch
+    private static void assertConsistent(BitBoard board) {
+        var rebuilt = new BitBoard(board.getComputerPieces(), board.getHumanPieces(), board.getKings());
+
+        assertEquals(rebuilt.getKey(), board.getKey());
+        assertEquals(rebuilt.getBoardStateScore(PlayerType.COMPUTER), board.getBoardStateScore(PlayerType.COMPUTER));
+        assertEquals(rebuilt.getBoardStateScore(PlayerType.HUMAN), board.getBoardStateScore(PlayerType.HUMAN));
+    }
+
+    private static long perft(BitBoard board, PlayerType playerType, int depth) {
+        var moves = new MoveList();
+        board.generateMoves(playerType, moves);
+        if (depth == 1) return moves.size();
+
+        long count = 0;
+        var undo = new MoveUndo();
+
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i), playerType, undo);
+            count += perft(board, BitBoard.getOppPlayer(playerType), depth - 1);
+            board.unmakeMove(moves.get(i), playerType, undo);
+        }
+
+        return count;
+    }
+}
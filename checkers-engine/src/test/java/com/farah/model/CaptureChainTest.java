@@ -0,0 +1,82 @@
+package com.farah.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaptureChainTest {
+    private static int bit(int row, int col) {
+        return 1 << BitBoard.toSquare(row, col);
+    }
+
+    @Test
+    void chainsWithTheSameEndsAreDistinctMoves() {
+        // the computer man on (2,2) takes two men either down the left or down the right, both chains end on (6,2)
+        var board = new BitBoard(bit(2, 2), bit(3, 1) | bit(5, 1) | bit(3, 3) | bit(5, 3) | bit(7, 7), 0);
+        var moves = new MoveList();
+        board.generateMoves(PlayerType.COMPUTER, moves);
+
+        assertEquals(2, moves.size());
+
+        for (int i = 0; i < moves.size(); i++) {
+            var move = moves.get(i);
+            assertEquals(2, MoveEncoding.getJumpCount(move));
+            assertEquals(BitBoard.toSquare(2, 2), MoveEncoding.getFrom(move));
+            assertEquals(BitBoard.toSquare(6, 2), MoveEncoding.getTo(move));
+            assertEquals(2, MoveEncoding.toMove(move).getJumps().size());
+        }
+
+        assertNotEquals(MoveEncoding.getCaptured(moves.get(0)), MoveEncoding.getCaptured(moves.get(1)));
+        assertEquals(bit(3, 1) | bit(5, 1) | bit(3, 3) | bit(5, 3), MoveEncoding.getCaptured(moves.get(0)) | MoveEncoding.getCaptured(moves.get(1)));
+    }
+
+    @Test
+    void chainTakesEveryPieceOnItsRoute() {
+        var board = new BitBoard(bit(0, 0), bit(1, 1) | bit(3, 3) | bit(5, 5) | bit(7, 7), 0);
+        var moves = new MoveList();
+        board.generateMoves(PlayerType.COMPUTER, moves);
+
+        // only the full chain is legal, stopping part way is not
+        assertEquals(1, moves.size());
+        var move = moves.get(0);
+        assertEquals(3, MoveEncoding.getJumpCount(move));
+        assertEquals(BitBoard.toSquare(6, 6), MoveEncoding.getTo(move));
+        assertEquals("1x10x19x28", MoveEncoding.toString(move));
+
+        var undo = new MoveUndo();
+        board.makeMove(move, PlayerType.COMPUTER, undo);
+        assertEquals(bit(6, 6), board.getComputerPieces());
+        assertEquals(bit(7, 7), board.getHumanPieces());
+
+        board.unmakeMove(move, PlayerType.COMPUTER, undo);
+        assertEquals(new BitBoard(bit(0, 0), bit(1, 1) | bit(3, 3) | bit(5, 5) | bit(7, 7), 0), board);
+    }
+
+    @Test
+    void crowningEndsTheChain() {
+        // after crowning on (7,3) a king could go on over (6,2), but a man which is crowned stops
+        var board = new BitBoard(bit(5, 5), bit(6, 4) | bit(6, 2) | bit(0, 0), 0);
+        var moves = new MoveList();
+        board.generateMoves(PlayerType.COMPUTER, moves);
+
+        assertEquals(1, moves.size());
+        assertEquals(1, MoveEncoding.getJumpCount(moves.get(0)));
+        assertTrue(MoveEncoding.isCrownMove(moves.get(0)));
+
+        board.makeMove(moves.get(0), PlayerType.COMPUTER, new MoveUndo());
+        assertEquals(bit(7, 3), board.getKings());
+    }
+
+    @Test
+    void packedChainRoundTripsThroughMove() {
+        var board = new BitBoard(bit(2, 2), bit(3, 1) | bit(5, 1) | bit(3, 3) | bit(5, 3) | bit(7, 7), 0);
+        var moves = new MoveList();
+        board.generateMoves(PlayerType.COMPUTER, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(moves.get(i), MoveEncoding.fromMove(MoveEncoding.toMove(moves.get(i))));
+        }
+    }
+}
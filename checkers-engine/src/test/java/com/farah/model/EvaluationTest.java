@@ -0,0 +1,54 @@
+package com.farah.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationTest {
+    @TempDir
+    Path directory;
+
+    private int[] read(String text) throws IOException {
+        var file = directory.resolve("weights.properties");
+        Files.writeString(file, text);
+
+        return Evaluation.readWeights(file);
+    }
+
+    private void assertRejected(String text, String message) {
+        var e = assertThrows(IllegalArgumentException.class, () -> read(text));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    @Test
+    void weightsRoundTrip() throws IOException {
+        var file = directory.resolve("weights.properties");
+        int[] weights = {4, 7, 2, 0, -1, 2};
+        Evaluation.writeWeights(file, weights, "test");
+
+        assertArrayEquals(weights, Evaluation.readWeights(file));
+        assertArrayEquals(new int[]{2, 3, 1, 1, 1, 1}, read("man=2\nking=3\n"));
+    }
+
+    @Test
+    void badMaterialWeightsAreRejected() {
+        assertRejected("king=5\n", "man weight is missing");
+        assertRejected("man=3\n", "king weight is missing");
+        assertRejected("man=-3\nking=5\n", "man weight must be positive");
+        assertRejected("man=3\nking=0\n", "king weight must be positive");
+    }
+
+    @Test
+    void weightsBeyondTheScoreLimitAreRejected() {
+        assertRejected("man=3\nking=500\n", "more than " + Evaluation.MAX_SCORE);
+        assertRejected("man=3\nking=5\npiece_count=-20\n", "more than " + Evaluation.MAX_SCORE);
+        assertThrows(IllegalArgumentException.class, () -> Evaluation.writeWeights(directory.resolve("out.properties"), new int[]{3, 5, 1, 1, 1, 100}, "test"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.farah.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PositionHistoryTest {
+    // count the earlier entries with the same key and player to move since the last irreversible move, the slow way
+    private static int countOccurrences(List<Long> keys, List<Boolean> reversible) {
+        var last = keys.size() - 1;
+        var occurrences = 1;
+
+        for (int i = last - 1; i >= 0 && reversible.get(i + 1); i--) {
+            if ((last - i) % 2 == 0 && keys.get(i).equals(keys.get(last))) occurrences++;
+        }
+
+        return occurrences;
+    }
+
+    @Test
+    void occurrencesMatchACountOfTheStack() {
+        var random = new Random(1);
+        var history = new PositionHistory();
+        List<Long> keys = new ArrayList<>();
+        List<Boolean> reversible = new ArrayList<>();
+
+        for (int step = 0; step < 100_000; step++) {
+            if (!keys.isEmpty() && random.nextInt(3) == 0) {
+                history.pop();
+                keys.remove(keys.size() - 1);
+                reversible.remove(reversible.size() - 1);
+            } else {
+                // few distinct keys so positions repeat often, and keys which collide in the filter
+                var key = (long) random.nextInt(6) << (random.nextBoolean() ? 0 : 12);
+                var isReversible = random.nextInt(5) != 0;
+
+                history.push(key, isReversible);
+                keys.add(key);
+                reversible.add(isReversible);
+            }
+
+            if (keys.isEmpty()) continue;
+
+            var occurrences = countOccurrences(keys, reversible);
+            assertEquals(occurrences, history.getOccurrences());
+            assertEquals(occurrences > 1, history.isRepetition());
+        }
+    }
+
+    @Test
+    void copiesAreEqual() {
+        var history = new PositionHistory();
+        history.push(1, false);
+        history.push(2, true);
+        history.push(1, true);
+
+        var copy = new PositionHistory(history);
+        assertEquals(history, copy);
+        assertEquals(history.hashCode(), copy.hashCode());
+        assertEquals(2, copy.getOccurrences());
+
+        // the same keys but a move which cannot be undone is a different history
+        var other = new PositionHistory();
+        other.push(1, false);
+        other.push(2, false);
+        other.push(1, true);
+        assertNotEquals(history, other);
+        assertEquals(1, other.getOccurrences());
+    }
+}
@@ -28,6 +28,12 @@ public class CheckersApplication extends Application {
         stage.show();
     }
 
+    // closing the window stops the computer search straight away rather than waiting for it to finish
+    @Override
+    public void stop() {
+        gameController.shutdown();
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -1,25 +1,32 @@
 package com.farah.controller;
 
+import com.farah.engine.EngineService;
+import com.farah.engine.OpeningBook;
+import com.farah.engine.SearchResult;
 import com.farah.model.*;
 import com.farah.view.GameView;
 import com.farah.view.PieceView;
 import com.farah.view.PositionView;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Alert;
 import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.input.*;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
-import org.apache.commons.lang3.SerializationUtils;
 
-import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static com.farah.constants.CheckersConstants.NUM_COLS;
 import static com.farah.constants.CheckersConstants.NUM_ROWS;
+import static com.farah.constants.CheckersConstants.REPETITION_DRAW_COUNT;
 
 /**
  * GameController class which is the gateway between the state/game logic and the visual representation of the game.
@@ -36,14 +43,23 @@ public class GameController {
     private PieceView targetPieceView = null;
     private PositionView sourcePosition = null;
 
-    // A reference to the current board state. As object based arrays cannot be copied with the .clone(), a helper function in the apache commons library is used to deep copy state
+    // A reference to the current board state, the search works on a bitboard converted from it
     public Checker[][] board;
 
     // A reference to the current player
     private PlayerType currentPlayer;
 
-    // A reference to the current game difficulty, which is used ultimately to dictates the maximum depth of the minimax search algorithm. The higher the depth the more time the AI takes to play.
-    private int maxDepth = GameMode.EASY.getMaxDepth();
+    // The positions of the game so far, used to draw the game when a position is repeated and passed to the search so it scores repeated positions as draws
+    private final PositionHistory positionHistory = new PositionHistory();
+
+    // A reference to the current game difficulty, which dictates the depth, time and node limits of the minimax search algorithm. The higher the limits the stronger (and slower) the AI plays.
+    private GameMode gameMode = GameMode.EASY;
+
+    // The engine searches on a background thread so the UI stays responsive. It is kept for the whole game so its transposition table carries over between turns, and uses every core unless the checkers.threads system property says otherwise
+    private final EngineService engineService = new EngineService(Integer.getInteger("checkers.threads", Runtime.getRuntime().availableProcessors()));
+
+    // The opening book gives the computer instant replies early in the game, it is read from the file named by the checkers.book system property
+    private final OpeningBook openingBook = OpeningBook.getDefault();
 
     public GameController(GameView gameView) {
         this.gameView = gameView;
@@ -62,6 +78,7 @@ public class GameController {
     // method to initialise game
     public void initialiseGame() {
         this.board = new Checker[NUM_ROWS][NUM_COLS];
+        positionHistory.clear();
 
         //set up checker pieces (state)
         for (int row = 0; row < NUM_ROWS; row++){
@@ -96,6 +113,8 @@ public class GameController {
                 gameView.getBoardView().add(positionView, col, row);
             }
         }
+
+        positionHistory.push(BitBoard.fromCheckers(board).getKey(currentPlayer), false);
     }
 
     // helper function to print the state representation of the board to the command line
@@ -152,11 +171,13 @@ public class GameController {
             }
         });
 
-        gameView.getMenuView().getEasyMode().setOnAction(e -> maxDepth = GameMode.EASY.getMaxDepth());
+        gameView.getMenuView().getEasyMode().setOnAction(e -> gameMode = GameMode.EASY);
 
-        gameView.getMenuView().getMediumMode().setOnAction(e -> maxDepth = GameMode.MEDIUM.getMaxDepth());
+        gameView.getMenuView().getMediumMode().setOnAction(e -> gameMode = GameMode.MEDIUM);
 
-        gameView.getMenuView().getHardMode().setOnAction(e -> maxDepth = GameMode.HARD.getMaxDepth());
+        gameView.getMenuView().getHardMode().setOnAction(e -> gameMode = GameMode.HARD);
+
+        gameView.getMenuView().getNeuralMode().setOnAction(e -> gameMode = GameMode.HARD_NEURAL);
     }
 
     // adds handlers to pieceViews to allow dragging. Only human pieceViews are affected.
@@ -192,15 +213,19 @@ public class GameController {
             sourcePosition = (PositionView) (targetPieceView.getParent());
 
             var move = new Move(sourcePosition.getRow(), sourcePosition.getCol(), targetPosition.getRow(), targetPosition.getCol(), BoardUtils.isJumpMove(sourcePosition.getRow(), sourcePosition.getCol(), targetPosition.getRow(), targetPosition.getCol()), BoardUtils.shouldCrown(targetPosition.getRow(), currentPlayer ));
-            var possibleMoves = BoardUtils.getAllPossibleMoves(SerializationUtils.clone(board), currentPlayer);
+            var possibleMoves = BoardUtils.getAllPossibleMoves(board, currentPlayer);
 
             if (possibleMoves.contains(move)){
-                if (db.hasContent(pieceViewFormat)) {
+                // the generated move also knows whether it crowns by regicide and, for a capture chain dropped on its final
+                // square, which pieces it jumps on the way, which the dropped move cannot tell
+                var legalMove = db.hasContent(pieceViewFormat) ? getLegalMove(possibleMoves, move) : null;
+
+                if (Objects.nonNull(legalMove)) {
                     //change state first
-                    BoardUtils.move(board, move, currentPlayer);
+                    makeStateMove(legalMove);
 
                     // now change view
-                    completeMoveView(targetPosition, move);
+                    completeMoveView(targetPosition, legalMove);
 
                     e.setDropCompleted(true);
                 } else {
@@ -217,7 +242,7 @@ public class GameController {
                         alert.setContentText("Illegal Move! You must take the available jump move!");
                     }
                 } else {
-                    alert.setContentText(String.format("Illegal Move! %s", BoardUtils.getIllegalMoveReason(SerializationUtils.clone(board), move)));
+                    alert.setContentText(String.format("Illegal Move! %s", BoardUtils.getIllegalMoveReason(board, move)));
                 }
 
                 alert.showAndWait();
@@ -251,35 +276,38 @@ public class GameController {
         });
     }
 
-    // method to complete AI/computer move after the user has had their turn. As all computer moves are generated, no move validation needs to be done
+    // method to start the AI/computer move after the user has had their turn. The search runs on the engine thread and the move is completed back on the FX application thread
     private void computerMove(){
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        // positions in the opening book are answered straight away without searching
+        var bookMove = openingBook.getMove(BitBoard.fromCheckers(board), currentPlayer);
+
+        if (Objects.nonNull(bookMove)){
+            engineService.cancel();
+            completeComputerMove(new SearchResult(bookMove, 0, 0, 0, 0));
+            return;
         }
 
-        var currentState = new BoardState(SerializationUtils.clone(board));
-        var firstMoves = currentState.getChildren(currentPlayer);
+        // if the human played the move the engine pondered on, the pondering search simply carries on as this search
+        // AI is always max player. The search deepens one ply at a time until the limits of the game mode are reached, making and unmaking moves on a single bitboard using pruning for efficient search
+        engineService.startSearch(BitBoard.fromCheckers(board), currentPlayer, positionHistory, gameMode.getSearchLimits(), info -> System.out.println("Computer searching " + info))
+                .thenAccept(result -> Platform.runLater(() -> completeComputerMove(result)))
+                .exceptionally(throwable -> {
+                    throwable.printStackTrace();
+                    return null;
+                });
+    }
 
-        for (BoardState childState : firstMoves) {
-            // AI is always max player. This gets the board evaluations for each possible state up until the max depth using pruning for efficient search
-            var score = BoardUtils.minimax(childState.getCheckersBoard(), 0, maxDepth, -1000, 1000,true);
-            childState.setValue(score);
-        }
+    // method to complete AI/computer move once the search has finished. As all computer moves are generated, no move validation needs to be done
+    private void completeComputerMove(SearchResult result){
+        var move = result.getBestMove();
 
-        //choose the move with the max score value
-        var boardStateOptional = firstMoves.stream().max(Comparator.comparing(BoardState::getValue));
+        System.out.println("Computer searched " + result);
 
-        //If the score value is empty (which it shouldn't be) exit...this is more for testing purposes
-        if (boardStateOptional.isEmpty()){
+        //If there is no move (which there shouldn't be) exit...this is more for testing purposes
+        if (Objects.isNull(move)){
             System.exit(1);
         }
 
-        // get the move which corresponds to the best state
-        var move = boardStateOptional.get().getMove();
-
-
         //get the source position of the moving checker
         sourcePosition = getPosition(move.getOldRow(), move.getOldCol());
 
@@ -294,7 +322,7 @@ public class GameController {
         //System.out.println("There are " + possibleMoves.size() + " possible moves for the AI");
 
         //complete the move both at the state/visual level
-        BoardUtils.move(board, move, currentPlayer);
+        makeStateMove(move);
         completeMoveView(getPosition(move.getNewRow(), move.getNewCol()), move);
 
         // reset the targetPiece and source position variables which are used by both the user/ai for visual changes
@@ -307,13 +335,64 @@ public class GameController {
         printViewBoard();
 
         switchCurrentPlayer();
+
+        // think about the reply the search expects while the human decides on their move
+        if (Objects.nonNull(result.getPonderMove())){
+            startPonder(result.getPonderMove());
+        }
+    }
+
+    // method to search the position after the expected human move in the background. If the human plays a different move the pondering search is dropped when the real search starts
+    // the history is the game as it will be after the expected move, which is what the real search is started with if the human plays it
+    private void startPonder(Move predictedMove){
+        var position = BitBoard.fromCheckers(board);
+        var move = MoveEncoding.fromMove(predictedMove);
+        var isReversible = position.isReversibleMove(move);
+        position.makeMove(move, PlayerType.HUMAN, new MoveUndo());
+
+        var ponderHistory = new PositionHistory(positionHistory);
+        ponderHistory.push(position.getKey(PlayerType.COMPUTER), isReversible);
+
+        engineService.startPonder(position, PlayerType.COMPUTER, ponderHistory, gameMode.getSearchLimits(), info -> System.out.println("Computer pondering " + info));
+    }
+
+    // helper function to complete a move at the state level and remember the new position, only king moves without a capture can lead back to an earlier position
+    private void makeStateMove(Move move){
+        var isReversible = BitBoard.fromCheckers(board).isReversibleMove(MoveEncoding.fromMove(move));
+
+        BoardUtils.move(board, move, currentPlayer);
+        positionHistory.push(BitBoard.fromCheckers(board).getKey(getOppPlayer(currentPlayer)), isReversible);
+    }
+
+    // stop any running search straight away, used when the window is closed
+    public void shutdown(){
+        engineService.shutdown();
     }
 
-    // after a move has been made, if there are any subsequent jump moves, they must be taken!
-    // ultimately this method is not used due to multi step moves not being implemented at the state level
-    private boolean mustCapture(Checker[][] board, PlayerType playerType){
-        var possibleForceCaptures = BoardUtils.getAllPossibleMoves(SerializationUtils.clone(board), currentPlayer);
-        return possibleForceCaptures.stream().anyMatch(Move::isJumpMove);
+    // helper function to find the legal move for a dropped move. Two capture chains can start and end on the same squares but take different pieces on the way,
+    // in which case the user is asked which route to take. Returns null if the user closes the dialog without choosing
+    private Move getLegalMove(List<Move> possibleMoves, Move move){
+        var matchingMoves = possibleMoves.stream().filter(move::equals).collect(Collectors.toList());
+
+        if (matchingMoves.size() == 1){
+            return matchingMoves.get(0);
+        }
+
+        var routes = new LinkedHashMap<String, Move>();
+        matchingMoves.forEach(matchingMove -> routes.put(describeRoute(matchingMove), matchingMove));
+
+        ChoiceDialog<String> routeDialog = new ChoiceDialog<>(routes.keySet().iterator().next(), routes.keySet());
+        routeDialog.setHeaderText("More than one capture route ends on this square!");
+        routeDialog.setContentText("Choose the pieces to capture:");
+
+        return routeDialog.showAndWait().map(routes::get).orElse(null);
+    }
+
+    // helper function to describe a capture chain by the pieces it takes, rows and columns are counted from 1 at the top left of the board
+    private String describeRoute(Move move){
+        return move.getJumps().stream()
+                .map(jump -> String.format("(row %d, col %d)", jump.getViaRow() + 1, jump.getViaCol() + 1))
+                .collect(Collectors.joining(" then ", "Capture ", ""));
     }
 
 
@@ -330,9 +409,9 @@ public class GameController {
         sourcePosition.removeCurrentPieceView();
         targetPosition.setCurrentPieceView(targetPieceView);
 
-        // if the move is a capture move, take the piece at mid section between the source/target locations
-        if (move.isJumpMove()){
-            capturePieceView(move.getViaRow(), move.getViaCol());
+        // if the move is a capture move, take the piece at mid section between the source/target locations of every jump
+        for (var jump : move.getJumps()){
+            capturePieceView(jump.getViaRow(), jump.getViaCol());
         }
 
         // if the move is a crowning one, crown the piece
@@ -360,12 +439,19 @@ public class GameController {
         }
 
         // if the game is over, pop up alert congratulating the winner and exit the game
-        if (BoardUtils.isGameOver(SerializationUtils.clone(board), currentPlayer)){
+        if (BoardUtils.isGameOver(board, currentPlayer)){
             Alert gameOverAlert = new Alert(Alert.AlertType.CONFIRMATION);
             gameOverAlert.setContentText(String.format("The game is over! \nCongrats to the %s player! \nThe game shall shortly exit!", getOppPlayer(currentPlayer)));
 
             gameOverAlert.setOnHidden(evt -> System.exit(1));
             gameOverAlert.show();
+        } else if (positionHistory.getOccurrences() >= REPETITION_DRAW_COUNT){
+            // the same position with the same player to move has come round too many times, neither player is making progress
+            Alert drawAlert = new Alert(Alert.AlertType.CONFIRMATION);
+            drawAlert.setContentText(String.format("The game is over! \nThe game is drawn by repetition, the same position has been reached %d times! \nThe game shall shortly exit!", REPETITION_DRAW_COUNT));
+
+            drawAlert.setOnHidden(evt -> System.exit(1));
+            drawAlert.show();
         }
     }
 
@@ -376,7 +462,7 @@ public class GameController {
 
     // helper function to show possible human/user based moves. This is done by highlighting the potential positionViews in green.
     public void showPossibleUserMoves(){
-        var possibleUserMoves = BoardUtils.getAllPossibleMoves(SerializationUtils.clone(board), PlayerType.HUMAN);
+        var possibleUserMoves = BoardUtils.getAllPossibleMoves(board, PlayerType.HUMAN);
         possibleUserMoves.forEach(move -> {
             PositionView positionView = getPosition(move.getNewRow(), move.getNewCol());
             positionView.showHelp();
@@ -0,0 +1,42 @@
+package com.farah.controller;
+
+import com.farah.engine.EvaluationType;
+import com.farah.engine.SearchLimits;
+
+/**
+ * GameMode enum, which signifies the current difficulty of the game,
+ * There are four modes; each with the search limits to be used by the iterative deepening minimax search. A mode can
+ * be limited by depth, by a wall clock budget in milliseconds, by a node budget or any combination (zero means no limit)
+ * Each mode also picks the evaluation the search uses, the last mode is the hard mode scored by the neural network
+ */
+public enum GameMode {
+    EASY("Easy", 2, 0, 0),
+    MEDIUM("Medium", 6, 0, 100_000),
+    HARD("Hard", 0, 1000, 0),
+    HARD_NEURAL("Hard (Neural Network)", 0, 1000, 0, EvaluationType.NEURAL);
+
+    private final String gameMode;
+    private final SearchLimits searchLimits;
+
+    GameMode(String gameMode, int maxDepth, long moveTimeMillis, long maxNodes){
+        this(gameMode, maxDepth, moveTimeMillis, maxNodes, EvaluationType.HEURISTIC);
+    }
+
+    GameMode(String gameMode, int maxDepth, long moveTimeMillis, long maxNodes, EvaluationType evaluation){
+        this.gameMode = gameMode;
+        this.searchLimits = new SearchLimits(maxDepth, moveTimeMillis, maxNodes, evaluation);
+    }
+
+    public String getGameMode(){
+        return gameMode;
+    }
+
+    // zero when the mode is only limited by time or nodes
+    public int getMaxDepth() {
+        return searchLimits.getMaxDepth();
+    }
+
+    public SearchLimits getSearchLimits() {
+        return searchLimits;
+    }
+}
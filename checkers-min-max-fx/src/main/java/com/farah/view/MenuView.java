@@ -10,7 +10,8 @@ import static javafx.scene.control.Alert.AlertType.*;
 
 /**
  * MenuView class extends the MenuBar layout to add the following user menus items
- * Difficulty - Set the game difficulty which changes the maxDepth used in the minimax algorithm
+ * Difficulty - Set the game difficulty which changes the search limits (depth, time or nodes) used in the minimax algorithm,
+ * or the evaluation, as the neural network mode does
  * Help - Toggle whether to show available user moves
  * About - Game rules, and additional implementation information
  */
@@ -20,6 +21,7 @@ public class MenuView extends MenuBar {
     private final RadioMenuItem easyMode;
     private final RadioMenuItem mediumMode;
     private final RadioMenuItem hardMode;
+    private final RadioMenuItem neuralMode;
 
     public MenuView() {
         this.hintMenuItem = new CheckMenuItem("Show Hints");
@@ -27,6 +29,7 @@ public class MenuView extends MenuBar {
         this.easyMode = new RadioMenuItem("Easy");
         this.mediumMode = new RadioMenuItem("Medium");
         this.hardMode = new RadioMenuItem("Hard");
+        this.neuralMode = new RadioMenuItem("Hard (Neural Network)");
 
         getMenus().addAll(createMenus());
     }
@@ -47,6 +50,10 @@ public class MenuView extends MenuBar {
         return mediumMode;
     }
 
+    public RadioMenuItem getNeuralMode() {
+        return neuralMode;
+    }
+
     public void showCheckerRules(ActionEvent actionEvent){
         var aboutAlert = new Alert(INFORMATION);
 
@@ -59,14 +66,16 @@ public class MenuView extends MenuBar {
                 "King checker pieces can move/capture diagonally in both forward/backward directions.\n\n" +
                 "Forced Captures\n\n" +
                 "Players must capture pieces when they can. If multiple captures are possible the user decides.\n\n" +
+                "Multiple Captures\n\n" +
+                "A capturing piece keeps jumping while it can, drop it on the square where its last jump lands. A piece which is crowned stops there.\n\n" +
                 "End Game\n\n" +
-                "The game ends/quits if a player cannot make a move/has run out of pieces!\n\nA confirmation message will display before termination.");
+                "The game ends/quits if a player cannot make a move/has run out of pieces!\n\nThe game is a draw if the same position, with the same player to move, is reached three times.\n\nA confirmation message will display before termination.");
         aboutAlert.showAndWait();
     }
 
     private List<Menu> createMenus(){
         return List.of(
-                createDifficultyMenu(getEasyMode(), getMediumMode(), getHardMode()),
+                createDifficultyMenu(getEasyMode(), getMediumMode(), getHardMode(), getNeuralMode()),
                 createHelpMenu(getHintMenuItem()),
                 createAboutMenu());
     }
@@ -1,5 +1,5 @@
 module com.farah {
     requires javafx.controls;
-    requires org.apache.commons.lang3;
+    requires com.farah.engine;
     exports com.farah;
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.farah.tools;
+
+import com.farah.engine.Search;
+import com.farah.engine.SearchLimits;
+import com.farah.engine.TranspositionTable;
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+/**
+ * EnginePlayer plays with a Search in the tournament process itself, the cheapest way to play many games. It has its
+ * own transposition table, which is cleared between games so every game starts from the same state.
+ */
+public class EnginePlayer implements Player {
+    private static final int HASH_MB = 16;
+
+    private final Search search = new Search(new TranspositionTable(HASH_MB));
+    private final SearchLimits limits;
+
+    public EnginePlayer(SearchLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public void newGame() {
+        search.getTranspositionTable().clear();
+    }
+
+    @Override
+    public int chooseMove(BitBoard board, PlayerType playerToMove, PositionHistory history, String moves) {
+        return MoveEncoding.fromMove(search.search(board, playerToMove, history, limits, info -> { }).getBestMove());
+    }
+
+    @Override
+    public void close() {
+    }
+}
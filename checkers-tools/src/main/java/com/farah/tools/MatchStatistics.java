@@ -0,0 +1,101 @@
+package com.farah.tools;
+
+/**
+ * MatchStatistics keeps the wins, draws and losses of one player against another and turns them into an Elo difference
+ * with a 95% confidence interval. The interval comes from the standard error of the mean game score, which takes the
+ * draws into account, and is converted to Elo with the logistic curve. It also gives the log likelihood ratio used by
+ * the sequential probability ratio test, using the normal approximation to the game score.
+ */
+public class MatchStatistics {
+    private static final double Z_95 = 1.959964;
+
+    private int wins;
+    private int draws;
+    private int losses;
+
+    public synchronized void addWin() {
+        wins++;
+    }
+
+    public synchronized void addDraw() {
+        draws++;
+    }
+
+    public synchronized void addLoss() {
+        losses++;
+    }
+
+    public synchronized int getGames() {
+        return wins + draws + losses;
+    }
+
+    public synchronized int getWins() {
+        return wins;
+    }
+
+    public synchronized int getDraws() {
+        return draws;
+    }
+
+    public synchronized int getLosses() {
+        return losses;
+    }
+
+    // mean score per game, a win is 1 and a draw is a half
+    public synchronized double getScore() {
+        var games = getGames();
+        return games == 0 ? 0.5 : (wins + draws * 0.5) / games;
+    }
+
+    // variance of the score of a single game
+    private synchronized double getVariance() {
+        var games = getGames();
+        if (games == 0) return 0;
+
+        var score = getScore();
+        return (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2) + losses * Math.pow(score, 2)) / games;
+    }
+
+    public synchronized double getElo() {
+        return toElo(getScore());
+    }
+
+    // the 95% confidence interval of the Elo difference, lower and upper bound
+    public synchronized double[] getEloInterval() {
+        var games = getGames();
+        var error = games == 0 ? 0.5 : Z_95 * Math.sqrt(getVariance() / games);
+        var score = getScore();
+
+        return new double[]{toElo(score - error), toElo(score + error)};
+    }
+
+    // log likelihood ratio of elo1 against elo0 given the games so far
+    public synchronized double getLogLikelihoodRatio(double elo0, double elo1) {
+        var variance = getVariance();
+        if (variance == 0) return 0;
+
+        var score0 = toScore(elo0);
+        var score1 = toScore(elo1);
+
+        return getGames() * (score1 - score0) * (2 * getScore() - score0 - score1) / (2 * variance);
+    }
+
+    // the Elo difference expected to give a mean score, clamped so a perfect score is not infinite
+    public static double toElo(double score) {
+        var clamped = Math.min(Math.max(score, 0.001), 0.999);
+        // adding 0.0 turns -0.0 into 0.0 for an even score
+        return -400 * Math.log10(1 / clamped - 1) + 0.0;
+    }
+
+    public static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public synchronized String toString() {
+        var interval = getEloInterval();
+
+        return String.format("games %d +%d =%d -%d score %.1f%% elo %.1f [%.1f, %.1f]", getGames(), wins, draws, losses,
+                getScore() * 100, getElo(), interval[0], interval[1]);
+    }
+}
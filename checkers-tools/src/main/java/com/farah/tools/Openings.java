@@ -0,0 +1,116 @@
+package com.farah.tools;
+
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Openings supplies the start positions of tournament games. Playing every game from the same position would repeat
+ * the same few games, so games start from positions a few plies into the game instead. These are either read from a
+ * file, one line of moves in square notation per opening (the same format as the opening book game files), or made by
+ * playing random legal moves from the start position.
+ */
+public class Openings {
+    private Openings() {
+    }
+
+    // distinct positions after the given number of random plies, the same seed always gives the same openings
+    public static List<Opening> random(int count, int plies, long seed) {
+        var random = new Random(seed);
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+        var seen = new HashSet<Long>();
+        List<Opening> openings = new ArrayList<>();
+
+        for (int attempt = 0; openings.size() < count && attempt < count * 100; attempt++) {
+            var board = BitBoard.getStartPosition();
+            var playerType = PlayerType.HUMAN;
+            var moves = new StringBuilder();
+
+            for (int ply = 0; ply < plies; ply++) {
+                board.generateMoves(playerType, legalMoves);
+                if (legalMoves.isEmpty()) break;
+
+                var move = legalMoves.get(random.nextInt(legalMoves.size()));
+                moves.append(moves.length() == 0 ? "" : " ").append(MoveEncoding.toString(move));
+
+                board.makeMove(move, playerType, undo);
+                playerType = BitBoard.getOppPlayer(playerType);
+            }
+
+            // openings which are already over, or repeat an earlier one, are of no use
+            if (board.hasMoves(playerType) && seen.add(board.getKey(playerType))) {
+                openings.add(new Opening(moves.toString(), board, playerType));
+            }
+        }
+
+        return openings;
+    }
+
+    public static List<Opening> read(Path file) throws IOException {
+        List<Opening> openings = new ArrayList<>();
+
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            openings.add(parse(line));
+        }
+
+        return openings;
+    }
+
+    public static Opening parse(String line) {
+        var board = BitBoard.getStartPosition();
+        var playerType = PlayerType.HUMAN;
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+
+        for (String token : line.trim().split("\\s+")) {
+            board.generateMoves(playerType, legalMoves);
+            var move = MoveEncoding.parse(token, legalMoves);
+            if (move == MoveEncoding.NO_MOVE) throw new IllegalArgumentException("Illegal move " + token + " in " + line);
+
+            board.makeMove(move, playerType, undo);
+            playerType = BitBoard.getOppPlayer(playerType);
+        }
+
+        return new Opening(line.trim(), board, playerType);
+    }
+
+    // a start position and the moves which led to it
+    public static class Opening {
+        private final String moves;
+        private final BitBoard board;
+        private final PlayerType playerToMove;
+
+        Opening(String moves, BitBoard board, PlayerType playerToMove) {
+            this.moves = moves;
+            this.board = board;
+            this.playerToMove = playerToMove;
+        }
+
+        public String getMoves() {
+            return moves;
+        }
+
+        // a copy, games change the board they are given
+        public BitBoard getBoard() {
+            return new BitBoard(board);
+        }
+
+        public PlayerType getPlayerToMove() {
+            return playerToMove;
+        }
+    }
+}
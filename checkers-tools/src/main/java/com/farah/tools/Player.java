@@ -0,0 +1,21 @@
+package com.farah.tools;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+/**
+ * Player is one side of a tournament game. A player is used by one thread at a time and plays any number of games one
+ * after the other.
+ */
+public interface Player extends AutoCloseable {
+    // called before every game
+    void newGame();
+
+    // the packed move to play in the position, which always has at least one legal move. The history holds the positions
+    // of the game up to this one, and the moves are those of the game from the start position in square notation
+    int chooseMove(BitBoard board, PlayerType playerToMove, PositionHistory history, String moves);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,127 @@
+package com.farah.tools;
+
+import com.farah.model.BitBoard;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PositionFile is the file format of labelled positions used for tuning. Each record is 16 bytes: the computer pieces,
+ * human pieces and kings masks of a BitBoard, the player to move, the game result and the search score, both from the
+ * computer's point of view. Records have a fixed width, so a file is read by memory mapping windows of records one after
+ * the other, whatever its size only one window is mapped at a time, and new records are simply appended to the end.
+ * File layout (big endian): magic, version, record size and a reserved int, then the records, each being the three
+ * masks, the player to move (0 computer, 1 human), the result (1 computer win, 0 draw, -1 human win) and the score as
+ * a 16 bit value.
+ */
+public class PositionFile {
+    public static final int RECORD_SIZE = 16;
+
+    public static final int COMPUTER_WIN = 1;
+    public static final int DRAW = 0;
+    public static final int HUMAN_WIN = -1;
+
+    static final int MAGIC = 0x434B5046;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private PositionFile() {
+    }
+
+    // the number of records in a file, after checking its header
+    public static long getRecordCount(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return checkHeader(channel, file);
+        }
+    }
+
+    private static long checkHeader(FileChannel channel, Path file) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) throw new IOException(file + " is not a position file");
+        if (header.getInt() != VERSION || header.getInt() != RECORD_SIZE) throw new IOException(file + " has an unsupported version");
+
+        // a record cut short by an interrupted append is left out
+        return (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    // window by window access to the records of a file, the records of a window are read with the static getters
+    public interface WindowConsumer {
+        void accept(ByteBuffer records, int count) throws IOException;
+    }
+
+    // map the records of the file a window of at most windowRecords at a time and hand each window to the consumer
+    public static void forEachWindow(Path file, int windowRecords, WindowConsumer consumer) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var count = checkHeader(channel, file);
+
+            for (long first = 0; first < count; first += windowRecords) {
+                var records = (int) Math.min(windowRecords, count - first);
+                var window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, (long) records * RECORD_SIZE);
+                consumer.accept(window, records);
+            }
+        }
+    }
+
+    // open a file for appending records, creating it with its header if it does not exist yet
+    public static FileChannel openForAppend(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+
+        try {
+            if (channel.size() == 0) {
+                var header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0);
+                header.flip();
+                while (header.hasRemaining()) channel.write(header);
+            } else {
+                // drop a partly written record left by an interrupted run, so every record stays aligned
+                channel.truncate(HEADER_SIZE + checkHeader(channel, file) * RECORD_SIZE);
+            }
+
+            channel.position(channel.size());
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // add a record at the position of the buffer
+    public static void putRecord(ByteBuffer buffer, BitBoard board, PlayerType playerToMove, int result, int score) {
+        buffer.putInt(board.getComputerPieces())
+                .putInt(board.getHumanPieces())
+                .putInt(board.getKings())
+                .put((byte) (playerToMove.equals(PlayerType.COMPUTER) ? 0 : 1))
+                .put((byte) result)
+                .putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+    }
+
+    public static int getComputerPieces(ByteBuffer records, int index) {
+        return records.getInt(index * RECORD_SIZE);
+    }
+
+    public static int getHumanPieces(ByteBuffer records, int index) {
+        return records.getInt(index * RECORD_SIZE + 4);
+    }
+
+    public static int getKings(ByteBuffer records, int index) {
+        return records.getInt(index * RECORD_SIZE + 8);
+    }
+
+    public static PlayerType getPlayerToMove(ByteBuffer records, int index) {
+        return records.get(index * RECORD_SIZE + 12) == 0 ? PlayerType.COMPUTER : PlayerType.HUMAN;
+    }
+
+    public static int getResult(ByteBuffer records, int index) {
+        return records.get(index * RECORD_SIZE + 13);
+    }
+
+    public static int getScore(ByteBuffer records, int index) {
+        return records.getShort(index * RECORD_SIZE + 14);
+    }
+}
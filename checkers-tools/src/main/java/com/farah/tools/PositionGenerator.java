@@ -0,0 +1,243 @@
+package com.farah.tools;
+
+import com.farah.engine.Search;
+import com.farah.engine.SearchLimits;
+import com.farah.engine.TranspositionTable;
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.farah.constants.CheckersConstants.REPETITION_DRAW_COUNT;
+
+/**
+ * PositionGenerator plays engine against engine games without a display and writes positions from them, labelled with
+ * the search score and the final result of the game, to position files (see PositionFile) for tuning and testing. The
+ * games are played one per thread from random openings, and every thread is a shard: it writes to a file of its own,
+ * named after the output prefix and the shard number, so no locking is needed to write. Each position played has the
+ * sample rate as its chance of being written, and a position already written, by this or an earlier run appending to
+ * the same files, is skipped by its Zobrist key. A game ends as a draw when a position is reached for the third time,
+ * and the searches are given the earlier positions of the game so a won king ending is played out rather than cycled.
+ * Usage: PositionGenerator [options]
+ * <pre>
+ * --out prefix          shard files are prefix-0.bin, prefix-1.bin and so on, appended to if they exist (default positions)
+ * --limits limits       search limits of both sides, as in Tournament (default depth=6)
+ * --games n             games to play (default 1000)
+ * --threads n           games played at once, one shard each (default all cores)
+ * --opening-plies n     plies of random openings, which are not written (default 8)
+ * --max-plies n         plies after which a game is a draw (default 200)
+ * --sample p            chance of each position being written (default 0.5)
+ * --seed n              seed of the openings and sampling
+ * </pre>
+ */
+public class PositionGenerator {
+    // how often (in games) the progress is printed
+    private static final int REPORT_INTERVAL = 100;
+
+    private static final int HASH_MB = 16;
+
+    private final SearchLimits limits;
+    private final List<Openings.Opening> openings;
+    private final int maxPlies;
+    private final double sampleRate;
+    private final long seed;
+
+    // keys of every position written, with the player to move
+    private final Set<Long> written = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final AtomicInteger gamesPlayed = new AtomicInteger();
+    private final AtomicLong positionsWritten = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    public PositionGenerator(SearchLimits limits, List<Openings.Opening> openings, int maxPlies, double sampleRate, long seed) {
+        this.limits = limits;
+        this.openings = openings;
+        this.maxPlies = maxPlies;
+        this.sampleRate = sampleRate;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var out = "positions";
+        var limits = SearchLimits.depth(6);
+        var games = 1000;
+        var threads = Runtime.getRuntime().availableProcessors();
+        var openingPlies = 8;
+        var maxPlies = 200;
+        var sampleRate = 0.5;
+        var seed = 1L;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out": out = Tournament.getValue(args, ++i); break;
+                case "--limits": limits = Tournament.parseLimits(Tournament.getValue(args, ++i)); break;
+                case "--games": games = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--threads": threads = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--opening-plies": openingPlies = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--max-plies": maxPlies = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--sample": sampleRate = Double.parseDouble(Tournament.getValue(args, ++i)); break;
+                case "--seed": seed = Long.parseLong(Tournament.getValue(args, ++i)); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        var openings = Openings.random(games, openingPlies, seed);
+        System.out.println(limits + ", " + openings.size() + " openings, " + games + " games, " + threads + " shards");
+
+        var generator = new PositionGenerator(limits, openings, maxPlies, sampleRate, seed);
+        List<Path> shards = new ArrayList<>();
+
+        for (int shard = 0; shard < threads; shard++) {
+            shards.add(Paths.get(out + "-" + shard + ".bin"));
+        }
+
+        generator.loadWritten(shards);
+        generator.play(games, shards);
+    }
+
+    // remember the positions already in the shard files, so appending to them does not write a position twice
+    public void loadWritten(List<Path> shards) throws IOException {
+        for (Path shard : shards) {
+            if (!Files.exists(shard)) continue;
+
+            PositionFile.forEachWindow(shard, 1 << 16, (records, count) -> {
+                for (int i = 0; i < count; i++) {
+                    var board = new BitBoard(PositionFile.getComputerPieces(records, i), PositionFile.getHumanPieces(records, i), PositionFile.getKings(records, i));
+                    written.add(board.getKey(PositionFile.getPlayerToMove(records, i)));
+                }
+            });
+        }
+
+        if (!written.isEmpty()) System.out.println(written.size() + " positions already written");
+    }
+
+    // play the games, one shard per thread, and print the progress
+    public void play(int games, List<Path> shards) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(shards.size());
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            var file = shards.get(shard);
+            var random = new Random(seed + shard);
+
+            workers.add(executor.submit(() -> {
+                try {
+                    playShard(games, file, random);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+
+        executor.shutdown();
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                System.err.println("A shard stopped: " + e.getCause());
+            }
+        }
+
+        System.out.println("Final " + getProgress());
+    }
+
+    // play games until all have been taken by some thread, appending the sampled positions of each game to the shard
+    private void playShard(int games, Path file, Random random) throws IOException {
+        var search = new Search(new TranspositionTable(HASH_MB));
+        var buffer = ByteBuffer.allocate(maxPlies * PositionFile.RECORD_SIZE);
+
+        try (FileChannel channel = PositionFile.openForAppend(file)) {
+            for (int game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                search.getTranspositionTable().clear();
+                buffer.clear();
+                playGame(openings.get(game % openings.size()), search, random, buffer);
+
+                // a game is written all at once, so an interrupted run never leaves a game without its result
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+
+                if (gamesPlayed.incrementAndGet() % REPORT_INTERVAL == 0) System.out.println(getProgress());
+            }
+        }
+    }
+
+    // play one game from the opening and put its sampled positions in the buffer
+    private void playGame(Openings.Opening opening, Search search, Random random, ByteBuffer buffer) {
+        var board = opening.getBoard();
+        var playerType = opening.getPlayerToMove();
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+
+        var history = new PositionHistory();
+        history.push(board.getKey(playerType), false);
+
+        List<BitBoard> boards = new ArrayList<>();
+        List<PlayerType> players = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        var result = PositionFile.DRAW;
+
+        for (int ply = 0; ply < maxPlies; ply++) {
+            board.generateMoves(playerType, legalMoves);
+
+            // a player who cannot move has lost
+            if (legalMoves.isEmpty()) {
+                result = playerType.equals(PlayerType.COMPUTER) ? PositionFile.HUMAN_WIN : PositionFile.COMPUTER_WIN;
+                break;
+            }
+
+            var searchResult = search.search(board, playerType, history, limits, info -> { });
+
+            if (random.nextDouble() < sampleRate) {
+                // the score is kept from the computer's point of view, as the result is
+                boards.add(new BitBoard(board));
+                players.add(playerType);
+                scores.add(playerType.equals(PlayerType.COMPUTER) ? searchResult.getScore() : -searchResult.getScore());
+            }
+
+            var move = MoveEncoding.fromMove(searchResult.getBestMove());
+            var isReversible = board.isReversibleMove(move);
+            board.makeMove(move, playerType, undo);
+            playerType = BitBoard.getOppPlayer(playerType);
+            history.push(board.getKey(playerType), isReversible);
+
+            if (history.getOccurrences() >= REPETITION_DRAW_COUNT) break;
+        }
+
+        for (int i = 0; i < boards.size(); i++) {
+            if (!written.add(boards.get(i).getKey(players.get(i)))) {
+                duplicates.incrementAndGet();
+                continue;
+            }
+
+            PositionFile.putRecord(buffer, boards.get(i), players.get(i), result, scores.get(i));
+            positionsWritten.incrementAndGet();
+        }
+    }
+
+    private String getProgress() {
+        return gamesPlayed.get() + " games, " + positionsWritten.get() + " positions written, " + duplicates.get() + " duplicates skipped";
+    }
+}
@@ -0,0 +1,80 @@
+package com.farah.tools;
+
+import com.farah.engine.SearchLimits;
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * ProtocolPlayer plays through an engine running in another process and spoken to with the TextProtocol commands, so
+ * two different builds of the engine can be played against each other. The process is started once and reused for
+ * every game the player plays. The position is sent as the moves of the game from the start position, so the engine
+ * knows the earlier positions and can score a repetition as a draw.
+ */
+public class ProtocolPlayer implements Player {
+    private final Process process;
+    private final PrintWriter in;
+    private final BufferedReader out;
+    private final String goCommand;
+
+    public ProtocolPlayer(String command, SearchLimits limits) {
+        try {
+            this.process = new ProcessBuilder(Arrays.asList(command.trim().split("\\s+")))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start " + command, e);
+        }
+
+        this.in = new PrintWriter(process.getOutputStream(), true);
+        this.out = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        this.goCommand = "go depth " + limits.getMaxDepth() + " time " + limits.getMoveTimeMillis() + " nodes " + limits.getMaxNodes();
+    }
+
+    @Override
+    public void newGame() {
+        in.println("newgame");
+    }
+
+    @Override
+    public int chooseMove(BitBoard board, PlayerType playerToMove, PositionHistory history, String moves) {
+        in.println(moves.isEmpty() ? "position startpos" : "position startpos moves " + moves);
+        in.println(goCommand);
+
+        try {
+            String line;
+
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith("error")) throw new IllegalStateException("Engine reported " + line);
+                if (!line.startsWith("bestmove ")) continue;
+
+                var legalMoves = new MoveList();
+                board.generateMoves(playerToMove, legalMoves);
+
+                var move = MoveEncoding.parse(line.split("\\s+")[1], legalMoves);
+                if (move == MoveEncoding.NO_MOVE) throw new IllegalStateException("Engine played an illegal move: " + line);
+
+                return move;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        throw new IllegalStateException("Engine process ended");
+    }
+
+    @Override
+    public void close() {
+        in.println("quit");
+        process.destroy();
+    }
+}
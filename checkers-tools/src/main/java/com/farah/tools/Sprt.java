@@ -0,0 +1,46 @@
+package com.farah.tools;
+
+/**
+ * Sprt is the sequential probability ratio test used to stop a match as soon as its result is clear. It weighs the
+ * hypothesis that the Elo difference is elo1 against the hypothesis that it is elo0. After every game the log likelihood
+ * ratio is compared with bounds set by the accepted error rates: alpha, the chance of accepting elo1 when elo0 is true,
+ * and beta, the chance of the reverse. Until one of the bounds is crossed the match goes on.
+ */
+public class Sprt {
+    public enum Result {
+        // elo0 accepted, the change is not an improvement
+        H0,
+        // elo1 accepted, the change is an improvement
+        H1,
+        CONTINUE
+    }
+
+    private final double elo0;
+    private final double elo1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    public Result check(MatchStatistics statistics) {
+        var ratio = statistics.getLogLikelihoodRatio(elo0, elo1);
+
+        if (ratio >= upperBound) return Result.H1;
+        if (ratio <= lowerBound) return Result.H0;
+        return Result.CONTINUE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sprt elo0 %.1f elo1 %.1f bounds [%.2f, %.2f]", elo0, elo1, lowerBound, upperBound);
+    }
+
+    public String toString(MatchStatistics statistics) {
+        return String.format("llr %.2f %s", statistics.getLogLikelihoodRatio(elo0, elo1), this);
+    }
+}
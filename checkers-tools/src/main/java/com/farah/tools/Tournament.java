@@ -0,0 +1,254 @@
+package com.farah.tools;
+
+import com.farah.engine.EvaluationType;
+import com.farah.engine.SearchLimits;
+import com.farah.model.BitBoard;
+import com.farah.model.MoveEncoding;
+import com.farah.model.MoveList;
+import com.farah.model.MoveUndo;
+import com.farah.model.PlayerType;
+import com.farah.model.PositionHistory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.farah.constants.CheckersConstants.REPETITION_DRAW_COUNT;
+
+/**
+ * Tournament plays a match between two engine configurations, A and B, without a display. Games are played in parallel,
+ * one per thread, and every opening is played twice with the colours swapped so neither side gains from a lucky start
+ * position. The result is reported from the point of view of A as wins, draws and losses with the Elo difference and
+ * its confidence interval, and with an SPRT the match stops as soon as the result is statistically clear.
+ * A game is drawn when a position is reached for the third time or after the maximum number of plies. The players are
+ * given the earlier positions of the game, so they can avoid a repetition when winning and aim for one when losing.
+ * Usage: Tournament [options]
+ * <pre>
+ * --a limits, --b limits           search limits of each side, such as depth=6, nodes=20000 or time=100 (default depth=6),
+ *                                   with eval=neural to score with the neural network
+ * --a-command cmd, --b-command cmd  play that side through an engine process speaking TextProtocol instead of in process
+ * --games n                         maximum number of games (default 1000)
+ * --threads n                       games played at once (default all cores)
+ * --openings file                   start positions, one line of moves per opening (default random openings)
+ * --opening-plies n                 plies of random openings (default 4)
+ * --max-plies n                     plies after which a game is a draw (default 200)
+ * --sprt elo0 elo1                  stop early with an SPRT of elo1 against elo0
+ * --alpha a, --beta b               error rates of the SPRT (default 0.05)
+ * --seed n                          seed of the random openings
+ * </pre>
+ */
+public class Tournament {
+    // how often (in games) the running result is printed
+    private static final int REPORT_INTERVAL = 100;
+
+    private final Supplier<Player> playerA;
+    private final Supplier<Player> playerB;
+    private final List<Openings.Opening> openings;
+    private final int maxPlies;
+    private final Sprt sprt;
+    private final MatchStatistics statistics = new MatchStatistics();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final List<Player> players = Collections.synchronizedList(new ArrayList<>());
+
+    public Tournament(Supplier<Player> playerA, Supplier<Player> playerB, List<Openings.Opening> openings, int maxPlies, Sprt sprt) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+        this.openings = openings;
+        this.maxPlies = maxPlies;
+        this.sprt = sprt;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var limitsA = SearchLimits.depth(6);
+        var limitsB = SearchLimits.depth(6);
+        String commandA = null;
+        String commandB = null;
+        var games = 1000;
+        var threads = Runtime.getRuntime().availableProcessors();
+        String openingsFile = null;
+        var openingPlies = 4;
+        var maxPlies = 200;
+        var seed = 1L;
+        Double elo0 = null;
+        Double elo1 = null;
+        var alpha = 0.05;
+        var beta = 0.05;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--a": limitsA = parseLimits(getValue(args, ++i)); break;
+                case "--b": limitsB = parseLimits(getValue(args, ++i)); break;
+                case "--a-command": commandA = getValue(args, ++i); break;
+                case "--b-command": commandB = getValue(args, ++i); break;
+                case "--games": games = Integer.parseInt(getValue(args, ++i)); break;
+                case "--threads": threads = Integer.parseInt(getValue(args, ++i)); break;
+                case "--openings": openingsFile = getValue(args, ++i); break;
+                case "--opening-plies": openingPlies = Integer.parseInt(getValue(args, ++i)); break;
+                case "--max-plies": maxPlies = Integer.parseInt(getValue(args, ++i)); break;
+                case "--seed": seed = Long.parseLong(getValue(args, ++i)); break;
+                case "--sprt":
+                    if (i + 2 >= args.length) throw new IllegalArgumentException("--sprt needs two values");
+                    elo0 = Double.parseDouble(getValue(args, ++i));
+                    elo1 = Double.parseDouble(getValue(args, ++i));
+                    break;
+                case "--alpha": alpha = Double.parseDouble(getValue(args, ++i)); break;
+                case "--beta": beta = Double.parseDouble(getValue(args, ++i)); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        var openings = openingsFile != null
+                ? Openings.read(Paths.get(openingsFile))
+                : Openings.random((games + 1) / 2, openingPlies, seed);
+        var sprt = elo0 != null ? new Sprt(elo0, elo1, alpha, beta) : null;
+
+        System.out.println("A " + (commandA != null ? commandA + " " : "") + limitsA);
+        System.out.println("B " + (commandB != null ? commandB + " " : "") + limitsB);
+        System.out.println(openings.size() + " openings, " + games + " games, " + threads + " threads" + (sprt != null ? ", " + sprt : ""));
+
+        var tournament = new Tournament(createPlayer(limitsA, commandA), createPlayer(limitsB, commandB), openings, maxPlies, sprt);
+        tournament.play(games, threads);
+    }
+
+    // the value following an option, given its index. A missing one is a usage error rather than an index out of bounds
+    static String getValue(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+
+    // limits written as depth=6,time=100,nodes=20000,eval=neural, any of which may be left out
+    static SearchLimits parseLimits(String text) {
+        var depth = 0;
+        long time = 0;
+        long nodes = 0;
+        var evaluation = EvaluationType.HEURISTIC;
+
+        for (String limit : text.split(",")) {
+            var parts = limit.split("=");
+
+            switch (parts[0].trim()) {
+                case "depth": depth = Integer.parseInt(parts[1].trim()); break;
+                case "time": time = Long.parseLong(parts[1].trim()); break;
+                case "nodes": nodes = Long.parseLong(parts[1].trim()); break;
+                case "eval": evaluation = EvaluationType.valueOf(parts[1].trim().toUpperCase()); break;
+                default: throw new IllegalArgumentException("Unknown limit " + limit);
+            }
+        }
+
+        if (depth == 0 && time == 0 && nodes == 0) throw new IllegalArgumentException("A player needs a search limit");
+
+        return new SearchLimits(depth, time, nodes, evaluation);
+    }
+
+    private static Supplier<Player> createPlayer(SearchLimits limits, String command) {
+        return command != null ? () -> new ProtocolPlayer(command, limits) : () -> new EnginePlayer(limits);
+    }
+
+    public MatchStatistics getStatistics() {
+        return statistics;
+    }
+
+    // play up to the given number of games, each opening with both colours, and print the result
+    public void play(int games, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // each thread keeps its own pair of players for all the games it plays
+        var threadPlayers = ThreadLocal.<Player[]>withInitial(() -> {
+            var pair = new Player[]{playerA.get(), playerB.get()};
+            players.add(pair[0]);
+            players.add(pair[1]);
+            return pair;
+        });
+
+        for (int game = 0; game < games; game++) {
+            var opening = openings.get((game / 2) % openings.size());
+            var aPlaysHuman = game % 2 == 0;
+
+            executor.execute(() -> {
+                if (stopped.get()) return;
+
+                var pair = threadPlayers.get();
+                var aSide = aPlaysHuman ? PlayerType.HUMAN : PlayerType.COMPUTER;
+                var winner = playGame(opening, pair[0], pair[1], aSide);
+
+                if (winner == null) {
+                    statistics.addDraw();
+                } else if (winner.equals(aSide)) {
+                    statistics.addWin();
+                } else {
+                    statistics.addLoss();
+                }
+
+                report();
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+        synchronized (players) {
+            for (Player player : players) player.close();
+        }
+
+        System.out.println("Final " + statistics + (sprt != null ? " " + sprt.toString(statistics) : ""));
+    }
+
+    private synchronized void report() {
+        var games = statistics.getGames();
+        var result = sprt != null ? sprt.check(statistics) : Sprt.Result.CONTINUE;
+
+        if (games % REPORT_INTERVAL == 0 || result != Sprt.Result.CONTINUE) {
+            System.out.println(statistics + (sprt != null ? " " + sprt.toString(statistics) : ""));
+        }
+
+        if (result != Sprt.Result.CONTINUE && !stopped.getAndSet(true)) {
+            System.out.println("SPRT accepted " + result + (result == Sprt.Result.H1 ? ", A is stronger" : ", A is not stronger"));
+        }
+    }
+
+    // play one game from the opening, returns the winning side or null for a draw
+    private PlayerType playGame(Openings.Opening opening, Player playerA, Player playerB, PlayerType aSide) {
+        var board = opening.getBoard();
+        var playerType = opening.getPlayerToMove();
+        var legalMoves = new MoveList();
+        var undo = new MoveUndo();
+        var moves = new StringBuilder(opening.getMoves());
+
+        // the opening moves are random man moves, so the game history can start after them
+        var history = new PositionHistory();
+        history.push(board.getKey(playerType), false);
+
+        playerA.newGame();
+        playerB.newGame();
+
+        for (int ply = 0; ply < maxPlies; ply++) {
+            board.generateMoves(playerType, legalMoves);
+
+            // a player who cannot move has lost
+            if (legalMoves.isEmpty()) return BitBoard.getOppPlayer(playerType);
+
+            var player = playerType.equals(aSide) ? playerA : playerB;
+            var move = player.chooseMove(board, playerType, history, moves.toString());
+
+            // an illegal move loses the game
+            if (legalMoves.indexOf(move) < 0) return BitBoard.getOppPlayer(playerType);
+
+            var isReversible = board.isReversibleMove(move);
+            board.makeMove(move, playerType, undo);
+            playerType = BitBoard.getOppPlayer(playerType);
+            history.push(board.getKey(playerType), isReversible);
+            moves.append(moves.length() == 0 ? "" : " ").append(MoveEncoding.toString(move));
+
+            if (history.getOccurrences() >= REPETITION_DRAW_COUNT) return null;
+        }
+
+        return null;
+    }
+}
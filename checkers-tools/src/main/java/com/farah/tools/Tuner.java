@@ -0,0 +1,306 @@
+package com.farah.tools;
+
+import com.farah.model.BitBoard;
+import com.farah.model.Evaluation;
+import com.farah.model.PlayerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Tuner fits the weights of the heuristic (see Evaluation) to game results, the Texel method. The evaluation of a
+ * position is turned into an expected result with a sigmoid, 1 / (1 + e^(-k * score)), and the weights are chosen to
+ * minimise the mean squared difference between expected and actual results over a set of positions. The scale k is
+ * fitted once with the starting weights and then kept, so the tuned weights stay in the units of the search margins.
+ * Positions are streamed from position files (see PositionFile) a window at a time, so memory use does not grow with the
+ * size of the data. Every window is a mini-batch: its records are split between the cores, each core adds up the
+ * gradient of its share, and the summed gradient makes one Adam step. Positions where the player to move has a capture
+ * are skipped, the static evaluation cannot see how the exchange ends.
+ * The score of a position is the computer's heuristic score less the human's, the evaluation the search uses, and the
+ * result is from the computer's point of view. The weights are rounded to whole numbers when they are written, as the
+ * engine uses ints. After every step the weights are brought back within what the engine accepts (see Evaluation.validateWeights): the
+ * man and king weights are kept at one or more, and all weights are scaled down when they would allow scores too close
+ * to the win scores of the search.
+ * Usage: Tuner [options] position files...
+ * <pre>
+ * --out file            weights file to write, loaded by the engine with -Dcheckers.weights=file (default weights.properties)
+ * --epochs n            passes over the positions (default 20)
+ * --batch n             positions per gradient step, also the window mapped at a time (default 65536)
+ * --rate r              Adam learning rate (default 0.05)
+ * --threads n           cores used (default all cores)
+ * </pre>
+ */
+public class Tuner {
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    // the range searched for the sigmoid scale and the number of golden section steps
+    private static final double MIN_SCALE = 0.001;
+    private static final double MAX_SCALE = 2;
+    private static final int SCALE_STEPS = 30;
+
+    private static final double MIN_MATERIAL_WEIGHT = 1;
+
+    // rounding can add a half to each of the five terms of the score bound of a piece, and a whole one to the doubled
+    // piece count, for each of 24 pieces, which has to stay within the limit of the engine
+    private static final double MAX_TUNED_SCORE = Evaluation.MAX_SCORE - 24 * 3;
+
+    private final List<Path> files;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    private final int threads;
+
+    private final double[] weights = new double[Evaluation.TERMS];
+    private final double[] firstMoments = new double[Evaluation.TERMS];
+    private final double[] secondMoments = new double[Evaluation.TERMS];
+    private long steps;
+    private double scale;
+
+    public Tuner(List<Path> files, int batchSize, int threads, int[] startWeights) {
+        this.files = files;
+        this.batchSize = batchSize;
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+
+        for (int term = 0; term < Evaluation.TERMS; term++) weights[term] = startWeights[term];
+    }
+
+    public static void main(String[] args) throws IOException {
+        var out = Paths.get("weights.properties");
+        var epochs = 20;
+        var batchSize = 65_536;
+        var rate = 0.05;
+        var threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out": out = Paths.get(Tournament.getValue(args, ++i)); break;
+                case "--epochs": epochs = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--batch": batchSize = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                case "--rate": rate = Double.parseDouble(Tournament.getValue(args, ++i)); break;
+                case "--threads": threads = Integer.parseInt(Tournament.getValue(args, ++i)); break;
+                default:
+                    if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option " + args[i]);
+                    files.add(Paths.get(args[i]));
+            }
+        }
+
+        if (files.isEmpty()) throw new IllegalArgumentException("No position files given");
+
+        long positions = 0;
+        for (Path file : files) positions += PositionFile.getRecordCount(file);
+        System.out.println(positions + " positions in " + files.size() + " files, " + threads + " threads");
+
+        var tuner = new Tuner(files, batchSize, threads, Evaluation.getWeights());
+
+        try {
+            System.out.printf("scale %.4f error %.6f%n", tuner.fitScale(), tuner.getError());
+
+            for (int epoch = 1; epoch <= epochs; epoch++) {
+                var error = tuner.runEpoch(rate);
+                System.out.printf("epoch %d error %.6f weights %s%n", epoch, error, tuner.formatWeights());
+            }
+
+            var rounded = tuner.getRoundedWeights();
+            System.out.printf("rounded weights error %.6f%n", tuner.getError(rounded));
+            Evaluation.writeWeights(out, rounded, "tuned on " + positions + " positions, error " + tuner.getError(rounded));
+            System.out.println("weights written to " + out);
+        } finally {
+            tuner.shutdown();
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // find the sigmoid scale which best fits the current weights by golden section search, the error is smooth and has
+    // a single minimum in k
+    public double fitScale() throws IOException {
+        var ratio = (Math.sqrt(5) - 1) / 2;
+        var low = MIN_SCALE;
+        var high = MAX_SCALE;
+
+        for (int step = 0; step < SCALE_STEPS; step++) {
+            var left = high - ratio * (high - low);
+            var right = low + ratio * (high - low);
+
+            scale = left;
+            var leftError = getError();
+            scale = right;
+            var rightError = getError();
+
+            if (leftError < rightError) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+
+        scale = (low + high) / 2;
+        return scale;
+    }
+
+    // mean squared error of the current weights over every position
+    public double getError() throws IOException {
+        return getError(weights);
+    }
+
+    public double getError(int[] intWeights) throws IOException {
+        var realWeights = new double[Evaluation.TERMS];
+        for (int term = 0; term < Evaluation.TERMS; term++) realWeights[term] = intWeights[term];
+
+        return getError(realWeights);
+    }
+
+    private double getError(double[] evaluationWeights) throws IOException {
+        var total = new Batch();
+
+        for (Path file : files) {
+            PositionFile.forEachWindow(file, batchSize, (records, count) -> total.add(computeBatch(records, count, evaluationWeights, false)));
+        }
+
+        return total.getError();
+    }
+
+    // one pass over all positions with an Adam step after every batch, returns the mean error seen during the pass
+    public double runEpoch(double rate) throws IOException {
+        var total = new Batch();
+
+        for (Path file : files) {
+            PositionFile.forEachWindow(file, batchSize, (records, count) -> {
+                var batch = computeBatch(records, count, weights, true);
+                if (batch.positions > 0) step(batch, rate);
+                total.add(batch);
+            });
+        }
+
+        return total.getError();
+    }
+
+    // error and gradient of a window of records, worked out in parallel, one share of the records per core
+    private Batch computeBatch(ByteBuffer records, int count, double[] evaluationWeights, boolean withGradient) {
+        var share = (count + threads - 1) / threads;
+        List<ForkJoinTask<Batch>> tasks = new ArrayList<>();
+
+        for (int first = 0; first < count; first += share) {
+            final int from = first;
+            final int to = Math.min(count, first + share);
+            tasks.add(pool.submit(() -> computeShare(records, from, to, evaluationWeights, withGradient)));
+        }
+
+        var batch = new Batch();
+        for (ForkJoinTask<Batch> task : tasks) batch.add(task.join());
+
+        return batch;
+    }
+
+    private Batch computeShare(ByteBuffer records, int from, int to, double[] evaluationWeights, boolean withGradient) {
+        var batch = new Batch();
+        var features = new int[Evaluation.TERMS];
+        var humanFeatures = new int[Evaluation.TERMS];
+
+        for (int i = from; i < to; i++) {
+            var computerPieces = PositionFile.getComputerPieces(records, i);
+            var humanPieces = PositionFile.getHumanPieces(records, i);
+            var kings = PositionFile.getKings(records, i);
+
+            if (new BitBoard(computerPieces, humanPieces, kings).hasCaptures(PositionFile.getPlayerToMove(records, i))) continue;
+
+            // the evaluation is linear in the weights, so its features are those of the computer less those of the human
+            Evaluation.getFeatures(PlayerType.COMPUTER, computerPieces, humanPieces, kings, features);
+            Evaluation.getFeatures(PlayerType.HUMAN, computerPieces, humanPieces, kings, humanFeatures);
+            for (int term = 0; term < Evaluation.TERMS; term++) features[term] -= humanFeatures[term];
+
+            double score = 0;
+            for (int term = 0; term < Evaluation.TERMS; term++) score += evaluationWeights[term] * features[term];
+
+            var expected = 1 / (1 + Math.exp(-scale * score));
+            var actual = (PositionFile.getResult(records, i) + 1) / 2.0;
+            var difference = expected - actual;
+
+            batch.positions++;
+            batch.squaredError += difference * difference;
+
+            if (withGradient) {
+                // derivative of the squared error with respect to each weight
+                var factor = 2 * difference * expected * (1 - expected) * scale;
+                for (int term = 0; term < Evaluation.TERMS; term++) batch.gradient[term] += factor * features[term];
+            }
+        }
+
+        return batch;
+    }
+
+    private void step(Batch batch, double rate) {
+        steps++;
+
+        for (int term = 0; term < Evaluation.TERMS; term++) {
+            var gradient = batch.gradient[term] / batch.positions;
+
+            firstMoments[term] = BETA1 * firstMoments[term] + (1 - BETA1) * gradient;
+            secondMoments[term] = BETA2 * secondMoments[term] + (1 - BETA2) * gradient * gradient;
+
+            var firstEstimate = firstMoments[term] / (1 - Math.pow(BETA1, steps));
+            var secondEstimate = secondMoments[term] / (1 - Math.pow(BETA2, steps));
+
+            weights[term] -= rate * firstEstimate / (Math.sqrt(secondEstimate) + EPSILON);
+        }
+
+        constrain();
+    }
+
+    // project the weights back onto the ones the engine accepts
+    private void constrain() {
+        weights[Evaluation.MAN] = Math.max(weights[Evaluation.MAN], MIN_MATERIAL_WEIGHT);
+        weights[Evaluation.KING] = Math.max(weights[Evaluation.KING], MIN_MATERIAL_WEIGHT);
+
+        var maxScore = Evaluation.getMaxScore(weights);
+
+        if (maxScore > MAX_TUNED_SCORE) {
+            for (int term = 0; term < Evaluation.TERMS; term++) weights[term] *= MAX_TUNED_SCORE / maxScore;
+        }
+    }
+
+    public int[] getRoundedWeights() {
+        var rounded = new int[Evaluation.TERMS];
+        for (int term = 0; term < Evaluation.TERMS; term++) rounded[term] = (int) Math.round(weights[term]);
+
+        return rounded;
+    }
+
+    private String formatWeights() {
+        var text = new StringBuilder();
+
+        for (int term = 0; term < Evaluation.TERMS; term++) {
+            text.append(term == 0 ? "" : " ").append(Evaluation.getTermName(term)).append(String.format("=%.3f", weights[term]));
+        }
+
+        return text.toString();
+    }
+
+    // the error and gradient summed over some positions
+    private static class Batch {
+        long positions;
+        double squaredError;
+        final double[] gradient = new double[Evaluation.TERMS];
+
+        void add(Batch other) {
+            positions += other.positions;
+            squaredError += other.squaredError;
+            for (int term = 0; term < Evaluation.TERMS; term++) gradient[term] += other.gradient[term];
+        }
+
+        double getError() {
+            return positions == 0 ? 0 : squaredError / positions;
+        }
+    }
+}